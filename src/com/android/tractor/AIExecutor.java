@@ -0,0 +1,38 @@
+package com.android.tractor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The thread pool the AI spreads its work over (Monte Carlo rollouts, scoring learning
+ * candidates), one thread per core, shared by all players in the process.  The threads are
+ * daemons, so an idle pool never keeps the game from exiting.
+ *
+ * Tasks submitted here must not wait on other tasks of the pool.
+ *
+ * @author anzhu
+ */
+public class AIExecutor {
+	private static ExecutorService executor = null;
+
+	public static synchronized ExecutorService Get() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(NumThreads(),
+					new ThreadFactory() {
+						private int num_threads = 0;
+
+						public synchronized Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "AIExecutor-" + num_threads++);
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+		return executor;
+	}
+
+	public static int NumThreads() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+}
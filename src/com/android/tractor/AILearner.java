@@ -1,29 +1,54 @@
-package com.android.tractor;
-
-import java.util.Vector;
-
-public class AILearner {
-
-	protected boolean isLearningEnabled = true;
-	
-	public void enableLearning(boolean b) {
-		isLearningEnabled = b;
-	}
-	
-	public double evaluateAfterState(Vector<Integer> afterstate) {
-		//System.out.println("eval");
-		return -1;
-	}
-	
-	public void gameOver() {
-		//System.out.println("gameover");
-	}
-
-	public void observeAfterStateReward(Vector<Integer> afterstate,
-			double reward) {
-		// TODO Auto-generated method stub
-		return;
-	}
-	
-	
-}
+package com.android.tractor;
+
+import java.util.Vector;
+
+public class AILearner {
+
+	protected boolean isLearningEnabled = true;
+	
+	public void enableLearning(boolean b) {
+		isLearningEnabled = b;
+	}
+	
+	/**
+	 * Value of afterstate, null being the terminal state.  Learners override this one, the
+	 * Vector<Integer> version is only kept for old callers.
+	 */
+	public double evaluateAfterState(FeatureBuffer afterstate) {
+		//System.out.println("eval");
+		return -1;
+	}
+
+	public double evaluateAfterState(Vector<Integer> afterstate) {
+		return evaluateAfterState(FeatureBuffer.FromVector(afterstate));
+	}
+
+	/**
+	 * A read-only copy of the model as it is right now, whose evaluateAfterState can be
+	 * called from several threads at once without taking any lock.  Learners that are safe to
+	 * share as they are can just return themselves.
+	 */
+	public AILearner snapshot() {
+		return this;
+	}
+	
+	public void gameOver() {
+		//System.out.println("gameover");
+	}
+
+	/**
+	 * Learners copy what they keep out of afterstate, the caller can reuse it right away.
+	 */
+	public void observeAfterStateReward(FeatureBuffer afterstate,
+			double reward) {
+		// TODO Auto-generated method stub
+		return;
+	}
+
+	public void observeAfterStateReward(Vector<Integer> afterstate,
+			double reward) {
+		observeAfterStateReward(FeatureBuffer.FromVector(afterstate), reward);
+	}
+	
+	
+}
@@ -0,0 +1,134 @@
+package com.android.tractor;
+
+/**
+ * Same model as AILinearLearner, but learns as it goes instead of in batches: every
+ * observeAfterStateReward moves the weights by one step of recursive least squares TD(0), in
+ * O(dim^2).  Only the last afterstate is kept, waiting for the value of the next one, so
+ * memory stays the same no matter how long training runs.  That afterstate is kept per thread,
+ * so that players sharing the learner from their own threads don't mix up their deals.
+ *
+ * P is the inverse of C I + sum_i x_i (x_i - discountRate x_i+1)', kept up to date by
+ * Sherman-Morrison, and the weights are P b as in AILinearLearner.
+ *
+ * @author anzhu
+ */
+public class AIOnlineLearner extends AILearner {
+
+	private static double discountRate = 0.5;
+
+	int degree = 2;
+	double C = .1; // L2 regularization
+
+	double[] weights = null;
+	int dim;
+	private double[][] P;
+	private double[] d;  // x - discountRate * next
+	private double[] Px;  // P x
+	private double[] dP;  // d' P
+	// The last afterstate of the deal being played on this thread and its reward.
+	private final ThreadLocal<Pending> pending = new ThreadLocal<Pending>() {
+		@Override
+		protected Pending initialValue() {
+			return new Pending();
+		}
+	};
+	private volatile AILearner weights_snapshot = null;
+
+	private static class Pending {
+		int[] afterstate = null;  // null if there's none yet.
+		double reward;
+	}
+
+	public AIOnlineLearner() {
+	}
+
+	public AIOnlineLearner(int degree) {
+		this.degree = degree;
+	}
+
+	@Override
+	public synchronized double evaluateAfterState(FeatureBuffer afterstate) {
+		if (afterstate == null || weights == null) {
+			// the terminal state, or nothing learned yet
+			return 0;
+		}
+		return AILinearLearner.evaluateMapped(weights, dim, degree, afterstate);
+	}
+
+	@Override
+	public synchronized AILearner snapshot() {
+		if (weights_snapshot == null)
+			weights_snapshot = new AILinearLearner.Snapshot(degree, dim, weights == null ? null : weights.clone());
+		return weights_snapshot;
+	}
+
+	@Override
+	public synchronized void gameOver() {
+		if (!isLearningEnabled) return;
+		Pending last = pending.get();
+		if (last.afterstate != null)
+			Update(last.afterstate, last.reward, null);
+		last.afterstate = null;
+	}
+
+	@Override
+	public synchronized void observeAfterStateReward(FeatureBuffer afterstate_features, double reward) {
+		if (!isLearningEnabled) return;
+		int[] afterstate = AILinearLearner.featureMap(afterstate_features, degree);
+		if (weights == null) {
+			// assume all subsequent afterstates will have the same dimension
+			dim = afterstate.length;
+			weights = new double[dim];
+			P = new double[dim][dim];
+			for (int i=0; i<dim; i++)
+				P[i][i] = 1 / C;
+			d = new double[dim];
+			Px = new double[dim];
+			dP = new double[dim];
+		}
+		Pending last = pending.get();
+		if (last.afterstate != null)
+			Update(last.afterstate, last.reward, afterstate);
+		last.afterstate = afterstate;
+		last.reward = reward;
+	}
+
+	// One step towards reward + discountRate * V(next) for x, next being null for the terminal
+	// state.
+	private void Update(int[] x, double reward, int[] next) {
+		for (int i=0; i<dim; i++) {
+			d[i] = next == null ? x[i] : x[i] - discountRate * next[i];
+		}
+		double denom = 1;
+		double delta = reward;
+		for (int i=0; i<dim; i++) {
+			double[] row = P[i];
+			double sum = 0;
+			for (int j=0; j<dim; j++) {
+				if (x[j] != 0) sum += row[j] * x[j];
+			}
+			Px[i] = sum;
+			denom += d[i] * sum;
+			delta -= d[i] * weights[i];
+		}
+		for (int j=0; j<dim; j++) {
+			dP[j] = 0;
+		}
+		for (int i=0; i<dim; i++) {
+			if (d[i] == 0) continue;
+			double[] row = P[i];
+			for (int j=0; j<dim; j++) {
+				dP[j] += d[i] * row[j];
+			}
+		}
+		for (int i=0; i<dim; i++) {
+			double k = Px[i] / denom;
+			weights[i] += k * delta;
+			double[] row = P[i];
+			for (int j=0; j<dim; j++) {
+				row[j] -= k * dP[j];
+			}
+		}
+		weights_snapshot = null;
+	}
+}
@@ -0,0 +1,161 @@
+package com.android.tractor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lets any number of player threads share one learner without taking its lock.
+ *
+ * Each thread appends what it observes to a deal of its own, and hands the deal over at
+ * gameOver.  One learner thread merges the deals into the wrapped learner, one after the
+ * other, and then swaps in a fresh snapshot() of it.  evaluateAfterState only reads the
+ * current snapshot, so it neither waits for learning nor for other players.  Since every
+ * thread has its own deal, players sharing a learner no longer mix up their afterstates.
+ *
+ * The wrapped learner must not be used directly while it's shared like this.  Learners whose
+ * snapshot() is themselves, e.g., AIStatefulLearner, still take their own lock to evaluate.
+ *
+ * @author anzhu
+ */
+public class AISharedLearner extends AILearner {
+	private final AILearner learner;  // only used by the learner thread once shared
+	private final AtomicReference<AILearner> model = new AtomicReference<AILearner>();
+	private final BlockingQueue<Deal> deals = new LinkedBlockingQueue<Deal>();
+	private final ThreadLocal<Deal> current_deal = new ThreadLocal<Deal>() {
+		@Override
+		protected Deal initialValue() {
+			return new Deal(null);
+		}
+	};
+	private Thread learner_thread = null;
+	// What the wrapped learner threw, after which it's left alone.  Flush() throws it on.
+	private volatile RuntimeException failure = null;
+
+	// One thread's afterstates and rewards until gameOver.
+	private static class Deal {
+		final List<int[]> afterstates = new ArrayList<int[]>();
+		final List<Double> rewards = new ArrayList<Double>();
+		// Set for the marker Flush() puts in, which has nothing to merge.
+		final CountDownLatch merged;
+
+		Deal(CountDownLatch merged) {
+			this.merged = merged;
+		}
+	}
+
+	public AISharedLearner(AILearner learner) {
+		this.learner = learner;
+		model.set(learner.snapshot());
+	}
+
+	@Override
+	public double evaluateAfterState(FeatureBuffer afterstate) {
+		return model.get().evaluateAfterState(afterstate);
+	}
+
+	@Override
+	public AILearner snapshot() {
+		return model.get();
+	}
+
+	/**
+	 * A null afterstate, i.e., the terminal state, has nothing to learn from and is skipped,
+	 * the end of the deal comes through gameOver.
+	 */
+	@Override
+	public void observeAfterStateReward(FeatureBuffer afterstate, double reward) {
+		if (!isLearningEnabled || afterstate == null) return;
+		Deal deal = current_deal.get();
+		deal.afterstates.add(afterstate.ToArray());
+		deal.rewards.add(reward);
+	}
+
+	@Override
+	public void gameOver() {
+		if (!isLearningEnabled) return;
+		Deal deal = current_deal.get();
+		current_deal.set(new Deal(null));
+		Submit(deal);
+	}
+
+	/**
+	 * Stops learning after what was handed over so far is merged, so that games played with
+	 * learning off see all of it.
+	 */
+	@Override
+	public void enableLearning(boolean b) {
+		if (!b)
+			Flush();
+		super.enableLearning(b);
+	}
+
+	/**
+	 * Waits until every deal handed over so far is merged and evaluateAfterState sees it.
+	 *
+	 * @throws IllegalStateException if the wrapped learner failed on one of them.
+	 */
+	public void Flush() {
+		CountDownLatch merged = new CountDownLatch(1);
+		Submit(new Deal(merged));
+		try {
+			merged.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null)
+			throw new IllegalStateException("Learning from a deal failed", failure);
+	}
+
+	private void Submit(Deal deal) {
+		StartLearnerThread();
+		deals.add(deal);
+	}
+
+	private synchronized void StartLearnerThread() {
+		if (learner_thread != null)
+			return;
+		learner_thread = new Thread(new Runnable() {
+			public void run() {
+				while (true) {
+					try {
+						Merge(deals.take());
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "AISharedLearner");
+		// Never keeps the game from exiting.
+		learner_thread.setDaemon(true);
+		learner_thread.start();
+	}
+
+	private void Merge(Deal deal) {
+		if (deal.merged != null) {
+			deal.merged.countDown();
+			return;
+		}
+		if (failure != null)
+			return;
+		try {
+			FeatureBuffer afterstate = new FeatureBuffer();
+			for (int i = 0; i < deal.afterstates.size(); ++i) {
+				afterstate.Clear();
+				for (int f : deal.afterstates.get(i))
+					afterstate.Add(f);
+				learner.observeAfterStateReward(afterstate, deal.rewards.get(i));
+			}
+			learner.gameOver();
+		} catch (RuntimeException e) {
+			// Keep the thread going so that Flush() returns, and report it there.
+			Util.e("AISharedLearner", "Learning from a deal failed: " + e);
+			failure = e;
+			return;
+		}
+		model.set(learner.snapshot());
+	}
+}
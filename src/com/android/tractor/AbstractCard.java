@@ -1,7 +1,7 @@
-package com.android.tractor;
-
-public interface AbstractCard {
-	public int GetIndex();
-	public int GetSuit();
-	public int GetNumber();
-}
+package com.android.tractor;
+
+public interface AbstractCard {
+	public int GetIndex();
+	public int GetSuit();
+	public int GetNumber();
+}
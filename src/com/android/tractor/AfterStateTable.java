@@ -0,0 +1,157 @@
+package com.android.tractor;
+
+/**
+ * Decayed visit counts and value sums of afterstates, for tabular learners such as
+ * AIStatefulLearner.  An afterstate is keyed by a 64-bit hash of its features, and the table is
+ * open addressing over parallel arrays, so looking one up neither builds a string nor boxes a
+ * Double.  Two afterstates whose hashes collide share an entry, which at 64 bits doesn't
+ * happen in practice.
+ *
+ * The table holds at most capacity afterstates and never grows.  When it's full, adding one
+ * more evicts the least visited of the next few afterstates a clock hand goes over, so that
+ * training for millions of deals takes the same memory throughout.
+ *
+ * @author anzhu
+ */
+public class AfterStateTable {
+	public static final long NO_KEY = 0;  // never returned by Hash, marks empty slots.
+	// Afterstates the clock hand looks at for each eviction.
+	private static final int EVICTION_SAMPLES = 8;
+	private static final int MAX_SLOTS = 1 << 30;
+
+	private final int capacity;
+	private final int mask;
+	private final long[] keys;
+	private final double[] count;
+	private final double[] sum;
+	private int size = 0;
+	private int hand = 0;
+
+	public AfterStateTable(int capacity) {
+		if (capacity < 1 || capacity > MAX_SLOTS / 2)
+			throw new IllegalArgumentException("capacity " + capacity + " not in [1, " + MAX_SLOTS / 2 + "]");
+		this.capacity = capacity;
+		// At most half full, to keep probe sequences short.
+		int slots = (int) Math.min((long) Integer.highestOneBit(capacity) * 4, MAX_SLOTS);
+		mask = slots - 1;
+		keys = new long[slots];
+		count = new double[slots];
+		sum = new double[slots];
+	}
+
+	/**
+	 * Key of afterstate, the same for the same features.
+	 */
+	public static long Hash(FeatureBuffer afterstate) {
+		long hash = 0x9e3779b97f4a7c15L ^ afterstate.size;
+		for (int i = 0; i < afterstate.size; ++i) {
+			hash = (hash ^ afterstate.values[i]) * 0x100000001b3L;
+			hash ^= hash >>> 29;
+		}
+		// Finish off with the MurmurHash3 mixer, since the low bits pick the slot.
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash == NO_KEY ? 1 : hash;
+	}
+
+	/**
+	 * Average value of key, sum / count, 0 if it's not in.
+	 */
+	public double Get(long key) {
+		int slot = Find(key);
+		if (slot < 0)
+			return 0;
+		return sum[slot] / count[slot];
+	}
+
+	public boolean Contains(long key) {
+		return Find(key) >= 0;
+	}
+
+	/**
+	 * One more visit of key with value: count and sum both decay by (1 - decay) and then
+	 * get 1 and value added.  Adds key if it's not in.
+	 */
+	public void Observe(long key, double value, double decay) {
+		int slot = Find(key);
+		if (slot < 0)
+			slot = Insert(key);
+		count[slot] = (1.0 - decay) * count[slot] + 1;
+		sum[slot] = (1.0 - decay) * sum[slot] + value;
+	}
+
+	public int Size() {
+		return size;
+	}
+
+	public int Capacity() {
+		return capacity;
+	}
+
+	private int Find(long key) {
+		if (key == NO_KEY)
+			return -1;
+		for (int slot = (int) key & mask; keys[slot] != NO_KEY; slot = (slot + 1) & mask) {
+			if (keys[slot] == key)
+				return slot;
+		}
+		return -1;
+	}
+
+	// Slot for key, which isn't in yet, with count and sum 0.
+	private int Insert(long key) {
+		if (size >= capacity)
+			Evict();
+		int slot = (int) key & mask;
+		while (keys[slot] != NO_KEY)
+			slot = (slot + 1) & mask;
+		keys[slot] = key;
+		count[slot] = 0;
+		sum[slot] = 0;
+		size++;
+		return slot;
+	}
+
+	// Removes the least visited of the next EVICTION_SAMPLES afterstates from the hand on.
+	private void Evict() {
+		int victim = -1;
+		int seen = 0;
+		for (int i = 0; i <= mask && seen < EVICTION_SAMPLES; ++i) {
+			if (keys[hand] != NO_KEY) {
+				if (victim < 0 || count[hand] < count[victim])
+					victim = hand;
+				seen++;
+			}
+			hand = (hand + 1) & mask;
+		}
+		if (victim >= 0)
+			Remove(victim);
+	}
+
+	// Empties slot, moving later entries of the same probe sequence back so that they can
+	// still be found.
+	private void Remove(int slot) {
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			if (keys[next] == NO_KEY)
+				break;
+			int home = (int) keys[next] & mask;
+			// Leave it if its home is cyclically in (slot, next].
+			boolean stays = slot <= next ? (slot < home && home <= next) : (slot < home || home <= next);
+			if (stays)
+				continue;
+			keys[slot] = keys[next];
+			count[slot] = count[next];
+			sum[slot] = sum[next];
+			slot = next;
+		}
+		keys[slot] = NO_KEY;
+		count[slot] = 0;
+		sum[slot] = 0;
+		size--;
+	}
+}
@@ -0,0 +1,130 @@
+package com.android.tractor;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Vector;
+
+/**
+ * Candidate plays without duplicates, in the order they were added.  Two plays are the same
+ * if they have the same cards, in whatever order.
+ *
+ * Plays are keyed by a 64-bit multiset hash, the sum of a random number per card index, so
+ * neither sorting nor building strings is needed.  On a hash collision the card counts are
+ * compared.  Since the order only depends on the order of Add(...), picking from the
+ * candidates with a seeded Random gives the same play every time.
+ *
+ * @author anzhu
+ */
+public class CandidateSet {
+	// One more key for the null cards a play can end up with when it couldn't be filled up.
+	private static final int NULL_CARD = Card.CARDS_PER_DECK;
+	private static final long[] card_keys = new long[NULL_CARD + 1];
+	static {
+		// Fixed seed, so that hashes are the same from run to run.
+		Random rng = new Random(0xca4d1da7eL);
+		for (int i = 0; i <= NULL_CARD; ++i)
+			card_keys[i] = rng.nextLong();
+	}
+
+	private final Vector<Card[]> plays = new Vector<Card[]>();
+	// Hash to index into plays, of the first play with that hash.  Later plays that happen to
+	// have the same hash are in collisions.
+	private final HashMap<Long, Integer> index_by_hash = new HashMap<Long, Integer>();
+	private Vector<Integer> collisions = null;
+
+	public CandidateSet() {
+	}
+
+	public CandidateSet(Vector<Card[]> candidates) {
+		for (Card[] cards : candidates)
+			Add(cards);
+	}
+
+	/**
+	 * Multiset hash of cards, the same for the same cards in any order.
+	 */
+	public static long Hash(Card[] cards) {
+		long hash = 0;
+		for (Card c : cards)
+			hash += card_keys[KeyIndex(c)];
+		return hash;
+	}
+
+	/**
+	 * Whether first and second have the same cards, in whatever order.
+	 */
+	public static boolean SameCards(Card[] first, Card[] second) {
+		if (first.length != second.length)
+			return false;
+		int[] num_cards = new int[NULL_CARD + 1];
+		for (Card c : first)
+			num_cards[KeyIndex(c)]++;
+		for (Card c : second) {
+			if (--num_cards[KeyIndex(c)] < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Adds cards unless the same play is already in.
+	 *
+	 * @param cards
+	 * @return true if cards was added.
+	 */
+	public boolean Add(Card[] cards) {
+		Long hash = Hash(cards);
+		Integer index = index_by_hash.get(hash);
+		if (index == null) {
+			index_by_hash.put(hash, plays.size());
+			plays.add(cards);
+			return true;
+		}
+		if (Find(cards, hash, index) >= 0)
+			return false;
+		if (collisions == null)
+			collisions = new Vector<Integer>();
+		collisions.add(plays.size());
+		plays.add(cards);
+		return true;
+	}
+
+	public boolean Contains(Card[] cards) {
+		Long hash = Hash(cards);
+		Integer index = index_by_hash.get(hash);
+		return index != null && Find(cards, hash, index) >= 0;
+	}
+
+	public int Size() {
+		return plays.size();
+	}
+
+	public Card[] Get(int index) {
+		return plays.get(index);
+	}
+
+	/**
+	 * The plays, in the order they were added.  The vector is the caller's.
+	 */
+	public Vector<Card[]> ToVector() {
+		return new Vector<Card[]>(plays);
+	}
+
+	private static int KeyIndex(Card c) {
+		return c == null ? NULL_CARD : c.GetIndex();
+	}
+
+	// Index of the play with the same cards as cards, -1 if there's none.
+	private int Find(Card[] cards, long hash, int first_index) {
+		if (SameCards(cards, plays.get(first_index)))
+			return first_index;
+		if (collisions != null) {
+			for (int index : collisions) {
+				Card[] play = plays.get(index);
+				if (Hash(play) == hash && SameCards(cards, play))
+					return index;
+			}
+		}
+		return -1;
+	}
+}
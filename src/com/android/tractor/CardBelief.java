@@ -0,0 +1,311 @@
+package com.android.tractor;
+
+/**
+ * Where the cards we haven't seen yet are likely to be, per player.
+ *
+ * expected[player][index] is the expected number of copies of card index that player holds.
+ * Each column adds up to the copies of the card nobody has seen yet, and a player that is
+ * known to be void of a suit holds nothing of it.  On top of that we keep the row sums per
+ * suit, so that "how many cards of suit does player hold" is a lookup.  Our own row is
+ * always empty, our own hand isn't a belief.
+ *
+ * Everything is updated in place when cards show up: only the columns of those cards are
+ * renormalized.  Copies that no player can hold (e.g., everybody else is void) are assumed to
+ * be in the tractor cards and simply drop out.
+ *
+ * @author anzhu
+ */
+public class CardBelief {
+	// For AllCopiesProbability: any player but us.
+	public static final int ANY_PLAYER = -1;
+
+	private final int num_players;
+	private final int my_id;
+	private final DealOrdering ordering;
+	private final int[] remaining;  // unseen copies per card index
+	private final int[] remaining_in_suit;  // unseen copies per play suit
+	private final int[][] suit_indices;  // card indices per play suit
+	private final double[][] expected;
+	private final double[][] suit_sums;
+	private final boolean[][] is_void;
+	// max_copies[player][suit]: most copies of any one card player may hold in suit, e.g., 1
+	// once we know the player doesn't have a pair in suit.
+	private final int[][] max_copies;
+	private final boolean[] free;  // scratch for Normalize
+	private volatile int version = 0;
+
+	public CardBelief(int num_players, int my_id, int num_decks, DealOrdering ordering) {
+		this.num_players = num_players;
+		this.my_id = my_id;
+		this.ordering = ordering;
+		remaining = new int[Card.CARDS_PER_DECK];
+		remaining_in_suit = new int[Card.SUIT_NUM_SUITS];
+		expected = new double[num_players][Card.CARDS_PER_DECK];
+		suit_sums = new double[num_players][Card.SUIT_NUM_SUITS];
+		is_void = new boolean[num_players][Card.SUIT_NUM_SUITS];
+		max_copies = new int[num_players][Card.SUIT_NUM_SUITS];
+		free = new boolean[num_players];
+		int[] suit_size = new int[Card.SUIT_NUM_SUITS];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i)
+			suit_size[ordering.PlaySuit(i)]++;
+		suit_indices = new int[Card.SUIT_NUM_SUITS][];
+		for (int suit = 0; suit < Card.SUIT_NUM_SUITS; ++suit) {
+			suit_indices[suit] = new int[suit_size[suit]];
+			suit_size[suit] = 0;
+			for (int p = 0; p < num_players; ++p)
+				max_copies[p][suit] = num_decks;
+		}
+		double share = num_players > 1 ? (double) num_decks / (num_players - 1) : 0;
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i) {
+			int suit = ordering.PlaySuit(i);
+			suit_indices[suit][suit_size[suit]++] = i;
+			remaining[i] = num_decks;
+			remaining_in_suit[suit] += num_decks;
+			for (int p = 0; p < num_players; ++p)
+				if (p != my_id)
+					Set(p, i, share);
+		}
+	}
+
+	/**
+	 * A copy of other that goes on separately.
+	 *
+	 * @param other
+	 */
+	public CardBelief(CardBelief other) {
+		num_players = other.num_players;
+		my_id = other.my_id;
+		ordering = other.ordering;
+		remaining = other.remaining.clone();
+		remaining_in_suit = other.remaining_in_suit.clone();
+		suit_indices = other.suit_indices;  // fixed for the deal.
+		expected = new double[num_players][];
+		suit_sums = new double[num_players][];
+		is_void = new boolean[num_players][];
+		max_copies = new int[num_players][];
+		for (int p = 0; p < num_players; ++p) {
+			expected[p] = other.expected[p].clone();
+			suit_sums[p] = other.suit_sums[p].clone();
+			is_void[p] = other.is_void[p].clone();
+			max_copies[p] = other.max_copies[p].clone();
+		}
+		free = new boolean[num_players];
+		version = other.version;
+	}
+
+	/**
+	 * Cards we get to see without anybody playing them, i.e., our own hand.
+	 *
+	 * @param cards
+	 */
+	public void RemoveKnownCards(Card[] cards) {
+		if (cards == null)
+			return;
+		for (Card c : cards) {
+			int index = c.GetIndex();
+			if (!DealOrdering.IsValidIndex(index) || remaining[index] == 0)
+				continue;
+			remaining[index]--;
+			remaining_in_suit[ordering.PlaySuit(index)]--;
+			Normalize(index, -1);
+		}
+		version++;
+	}
+
+	/**
+	 * player_id played cards, which came out of that player's hand.
+	 *
+	 * @param player_id
+	 * @param cards
+	 */
+	public void PlayerPlayedCards(int player_id, Card[] cards) {
+		if (cards == null || player_id == my_id)
+			return;
+		for (Card c : cards) {
+			int index = c.GetIndex();
+			if (!DealOrdering.IsValidIndex(index) || remaining[index] == 0)
+				continue;
+			remaining[index]--;
+			remaining_in_suit[ordering.PlaySuit(index)]--;
+			// The player had at least this copy, so whatever else we believed is there is one less.
+			Set(player_id, index, Math.min(Math.max(expected[player_id][index] - 1, 0), remaining[index]));
+			Normalize(index, player_id);
+		}
+		version++;
+	}
+
+	/**
+	 * We found out player_id has nothing left in suit.
+	 *
+	 * @param player_id
+	 * @param suit
+	 */
+	public void SetVoid(int player_id, int suit) {
+		if (player_id == my_id || is_void[player_id][suit])
+			return;
+		is_void[player_id][suit] = true;
+		for (int index : suit_indices[suit])
+			Normalize(index, -1);
+		version++;
+	}
+
+	/**
+	 * We found out player_id holds at most max copies of any card in suit, e.g., the player
+	 * couldn't follow a pair with a pair.
+	 *
+	 * @param player_id
+	 * @param suit
+	 * @param max
+	 */
+	public void SetMaxCopies(int player_id, int suit, int max) {
+		if (player_id == my_id || max >= max_copies[player_id][suit])
+			return;
+		max_copies[player_id][suit] = max;
+		for (int index : suit_indices[suit])
+			Normalize(index, -1);
+		version++;
+	}
+
+	/**
+	 * Goes up every time the belief changes.
+	 */
+	public int GetVersion() {
+		return version;
+	}
+
+	public boolean IsVoid(int player_id, int suit) {
+		return is_void[player_id][suit];
+	}
+
+	public double ExpectedCopies(int player_id, int index) {
+		return expected[player_id][index];
+	}
+
+	public double ExpectedCardsInSuit(int player_id, int suit) {
+		return suit_sums[player_id][suit];
+	}
+
+	/**
+	 * Chance that any one unseen copy of card index is with player_id.
+	 */
+	public double Share(int player_id, int index) {
+		int copies = remaining[index];
+		if (copies == 0)
+			return 0;
+		return Math.min(expected[player_id][index] / copies, 1);
+	}
+
+	/**
+	 * Probability that player_id holds at least one copy of card index, treating the
+	 * remaining copies as placed independently.
+	 */
+	public double HoldsCardProbability(int player_id, int index) {
+		return 1 - SingletonCardPropertyProbability.IntPower(1 - Share(player_id, index), remaining[index]);
+	}
+
+	/**
+	 * Bit mask of every player but us, for AllCopiesProbability.
+	 */
+	public int OtherPlayers() {
+		return ((1 << num_players) - 1) & ~(1 << my_id);
+	}
+
+	/**
+	 * Probability that num_copies given copies of each card in indices all end up with the
+	 * same player: player_id, or any player in players_mask for ANY_PLAYER.  The cards are
+	 * taken to be spread among the players in players_mask only (plus whatever nobody can
+	 * hold), each player keeping its relative share, and copies are placed independently.
+	 */
+	public double AllCopiesProbability(int player_id, int players_mask, int[] indices, int num_copies) {
+		double probability = 0;
+		for (int p = 0; p < num_players; ++p) {
+			if (p == my_id || (players_mask & (1 << p)) == 0 || (player_id != ANY_PLAYER && p != player_id))
+				continue;
+			double player_probability = 1;
+			for (int index : indices)
+				player_probability *= SingletonCardPropertyProbability.IntPower(
+						ShareAmong(p, players_mask, index), num_copies);
+			probability += player_probability;
+		}
+		return Math.min(probability, 1);
+	}
+
+	private double ShareAmong(int player_id, int players_mask, int index) {
+		// Copies no player can hold stay in the total, they are in the tractor cards.
+		double total = remaining[index];
+		for (int p = 0; p < num_players; ++p)
+			if (p != my_id && (players_mask & (1 << p)) == 0)
+				total -= expected[p][index];
+		if (total <= 0)
+			return 0;
+		return Math.min(expected[player_id][index] / total, 1);
+	}
+
+	/**
+	 * Probability that player_id holds nothing in suit, treating each remaining card of the
+	 * suit as going to player_id with the player's share of the suit.
+	 */
+	public double VoidProbability(int player_id, int suit) {
+		if (player_id == my_id)
+			return 0;
+		int copies = remaining_in_suit[suit];
+		if (is_void[player_id][suit] || copies == 0)
+			return 1;
+		double share = Math.min(suit_sums[player_id][suit] / copies, 1);
+		return SingletonCardPropertyProbability.IntPower(1 - share, copies);
+	}
+
+	private void Set(int player_id, int index, double value) {
+		suit_sums[player_id][ordering.PlaySuit(index)] += value - expected[player_id][index];
+		expected[player_id][index] = value;
+	}
+
+	/**
+	 * Rescales column index so that it adds up to the remaining copies again.  fixed_player's
+	 * entry (if any) is left alone, players that can't hold the card get 0, and the rest keep
+	 * their relative weights as far as max_copies allows.
+	 */
+	private void Normalize(int index, int fixed_player) {
+		int suit = ordering.PlaySuit(index);
+		double target = remaining[index];
+		if (fixed_player >= 0)
+			target -= expected[fixed_player][index];
+		target = Math.max(target, 0);
+		int num_free = 0;
+		for (int p = 0; p < num_players; ++p) {
+			free[p] = p != my_id && p != fixed_player && !is_void[p][suit] && max_copies[p][suit] > 0;
+			if (free[p])
+				num_free++;
+			else if (p != fixed_player)
+				Set(p, index, 0);
+		}
+		// Scale everybody up or down, then pin whoever goes over the cap and retry with the rest.
+		while (num_free > 0) {
+			double free_sum = 0;
+			for (int p = 0; p < num_players; ++p)
+				if (free[p])
+					free_sum += expected[p][index];
+			boolean clamped = false;
+			for (int p = 0; p < num_players; ++p) {
+				if (!free[p])
+					continue;
+				double value = free_sum > 0 ? expected[p][index] * target / free_sum : target / num_free;
+				if (value > max_copies[p][suit]) {
+					Set(p, index, max_copies[p][suit]);
+					target = Math.max(target - max_copies[p][suit], 0);
+					free[p] = false;
+					num_free--;
+					clamped = true;
+					break;
+				}
+			}
+			if (clamped)
+				continue;
+			for (int p = 0; p < num_players; ++p) {
+				if (free[p])
+					Set(p, index, free_sum > 0 ? expected[p][index] * target / free_sum : target / num_free);
+			}
+			break;
+		}
+	}
+}
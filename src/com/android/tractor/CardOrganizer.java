@@ -1,382 +1,564 @@
-package com.android.tractor;
-
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Vector;
-
-/**
- * This is intended by AIPlayer to either keep track of their own cards, or opponents played cards.
- * So one CardOrganizer per player.  We can probably add a lot of functionality here to keep track of 
- * various properties for each player.  Functions like: HasSuit(), or HasPropertyInSuit(SingletonCardProperty)
- * etc.  For now, I just implement the simple thing of organize cards into suits and maintain them as we play along.
- * important thing: keep things sorted in the PerDealCardComparator order.  Is not, please start to make local
- * copies.  Some cares are from TractorGameState, and they need to be sorted.
- * 
- * @author anzhu
- *
- */
-public class CardOrganizer {
-	// suit situation.  default is UNCERTAIN.  VOID is definitely. EXIST means that we see the card played.
-	// It's probably a bit surer than UNCERTAIN.
-	// MQC: put these in rough order of sureness of void.
-	public static int UNCERTAIN = 0;
-	public static int VOID = -1;
-	public static int EXIST = 1;
-	
-	public PerDealCardComparator comparator;
-	Vector<Vector<Card> > suited_cards;
-	int[] suit_info;
-	int trumpSuit;
-	int trumpNumber;
-	CardAnalyzer analyzer;
-	
-	public class PropertyTypeInfo {
-		// The lead property that initiated this.  Used to identify and group together
-		// PropertyTypeInfo.  We should have only one such object per lead_property type per suit.
-		public SingletonCardProperty lead_property;
-		// The properties that are missing when matching the lead_property.  Note that
-		// we store the lowest possible property that is missing.  For instance, AAAKKK,
-		// we played 777456, then a pair will be stored here.
-		public Vector<SingletonCardProperty> void_properties;
-		// The properties that could exist and not played due to the fact that it has higher type.
-		// Note that it depends on void_properties as well.  For instance AAAKKK, if we played 777222,
-		// then the maybe_properties will contain the types: 4444 (4 of a kind), and AAAKKKQQQ (3-3).
-		// However, if we played 777228, then AAAKKKQQQ(3-3) can't be in the maybe_properties.
-		// Think of maybe_properties being empty as equivalent as holding a non-existing property.
-		public Vector<SingletonCardProperty> maybe_properties;
-		
-		public PropertyTypeInfo() {
-			lead_property = null;
-			void_properties = new Vector<SingletonCardProperty>();
-			maybe_properties = new Vector<SingletonCardProperty>();
-		}
-	};
-	
-	Vector<Vector<PropertyTypeInfo>> property_type_info;
-	/**
-	 * Get cards of the same specified by "suit".  Assume that cards have been
-	 * sorted the property PerDealCardComparator. Preserves ordering in cards
-	 * passed in.
-	 * 
-	 * @param suit Should be calculated through CalculatePlaySuit first
-	 * @param sorted_cards Sorted cards
-	 * @param trump suit
-	 * @param trump number
-	 * @return Card array that contains the suit.
-	 */
-	static public  Card[] GetSameSuitCards(int suit, Card[] sorted_cards, int trump_suit, int trump_number) {
-		Vector<Card> same_suit_cards = new Vector<Card>();
-		for (int i = 0; i < sorted_cards.length; ++i) {
-			if (sorted_cards[i].CalculatePlaySuit(trump_suit, trump_number) == suit) {
-				same_suit_cards.add(sorted_cards[i]);
-			} else if (same_suit_cards.size() != 0) {
-				break;  // cards is sorted.
-			}
-		}
-		return same_suit_cards.toArray(new Card[0]);
-	}
-	
-	/**
-	 * Separate cards passed in into same suit card vector.  cards will
-	 * become sorted afterwards.
-	 * 
-	 * @param cards cards to be separated, don't have to be sorted
-	 * @param suit trump suit
-	 * @param number trump number
-	 * @return
-	 */
-	static public Vector<Card[]> SeparateIntoSameSuit(Card[] cards, int suit, int number) {
-		Arrays.sort(cards, new PerDealCardComparator(suit, number));
-		if (cards == null || cards.length == 0)
-			return null;
-		Vector<Card[]> cards_array  = new Vector<Card[]>();
-		Vector<Card> same_suit_cards = null;
-		int initial_suit = Card.SUIT_UNDEFINED;
-		Arrays.sort(cards, new PerDealCardComparator(suit, number));
-		for (Card c: cards) {
-			if (c.CalculatePlaySuit(suit, number) != initial_suit) {
-				if (same_suit_cards != null) {
-					cards_array.add(same_suit_cards.toArray(new Card[0]));
-				}
-				initial_suit = c.CalculatePlaySuit(suit, number);
-				same_suit_cards = new Vector<Card>();
-			}
-			same_suit_cards.add(c);
-			
-		}
-		// same_suit_cards guaranteed to be not null.
-		cards_array.add(same_suit_cards.toArray(new Card[0]));
-		return cards_array;
-	}
-
-	/**
-	 * @param cards
-	 * @param trump_suit
-	 * @param trump_number
-	 */
-	public CardOrganizer(int trump_suit, int trump_number, CardAnalyzer a) {
-		suited_cards = new Vector<Vector<Card> >();
-		property_type_info = new Vector<Vector<PropertyTypeInfo>>();
-		for (int i = 0; i < 5; i++) {
-			suited_cards.add(new Vector<Card>());
-			property_type_info.add(new Vector<PropertyTypeInfo>());
-		}
-		trumpSuit = trump_suit;
-		trumpNumber = trump_number;
-		comparator = new PerDealCardComparator(trump_suit, trump_number);
-		suit_info = new int[Card.SUIT_NUM_SUITS];
-		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
-			suit_info[i] = UNCERTAIN;
-		}
-		analyzer = a;
-		
-	}
-	
-
-	/**
-	 * Get rid of the expired cards in our cards.  The expired cards
-	 * need to be in our hand.
-	 *  
-	 * @param expired_cards
-	 */
-	public void DeleteCards(Card[] expired_cards) {
-		// As crazy as this may sound, I think the bug here is that expired_cards is shared among threads.
-		// Create local copy ba.
-		if (expired_cards == null || expired_cards.length == 0)
-			return;
-		Card[] expired_cards_2 = expired_cards.clone();
-		// Util.g("Cards To Be Deleted: ", Arrays.toString(expired_cards));
-		// Util.g("Current cards: ", toString());
-		Vector<Card[]> separated_expired_cards = SeparateIntoSameSuit(expired_cards_2, trumpSuit, trumpNumber);
-		for (Card[] ex_cards : separated_expired_cards) {
-			int suit = ex_cards[0].CalculatePlaySuit(trumpSuit, trumpNumber);
-			Vector<Card> same_suit_cards = suited_cards.get(suit);
-			Collections.sort(same_suit_cards, comparator);
-			int j = 0;  // index for same_suit_cards
-			for (int i = 0; i < ex_cards.length;) {
-				if (same_suit_cards.get(j).GetIndex() == ex_cards[i].GetIndex()) {
-					i++;
-					same_suit_cards.remove(j);
-				} else {
-					j++;
-				}
-			}
-		}
-		// Util.g("Current cards after deletion: ", toString());
-	}
-	
-	public Vector<Card> GetSuit(int suit) {
-		return suited_cards.get(suit);
-	}
-	
-	public CardProperty GetSuitProperty(int suit) {
-		return new CardProperty(suited_cards.get(suit).toArray(new Card[0]), trumpSuit, trumpNumber);
-	}
-	
-	public String toString() {
-		String cards_string = "";
-		for (Vector<Card> cards : suited_cards) {
-			cards_string += Arrays.toString(cards.toArray(new Card[0]));
-		}
-		return cards_string;
-	}
-	
-	/**
-	 * Used to get the suit info for a player for which we don't know their initial hand.
-	 * 
-	 * @param suit
-	 * @return
-	 */
-	public int SuitInfo(int suit) {
-		return suit_info[suit];
-	}
-	
-	/**
-	 * Used to get the suit for myself, which is accurate information on exactly the number
-	 * of cards remaining.
-	 * 
-	 * @param suit
-	 * @return
-	 */
-	public int CardsInSuit(int suit) {
-		return suited_cards.get(suit).size();
-	}
-	
-	/**
-	 * Given a bunch of properties, decide that if p should be added to properties.
-	 * p will either replace a smaller property, or consumed by a bigger property
-	 * already in the collection.
-	 * 
-	 * @param properties A bunch of properties that are not compatible with each other. not in any sorted order.
-	 * @param p
-	 * @param want_points whether we favor exact type properties with more points, or less points.
-	 */
-	public void ConsumePropertyType(Vector<SingletonCardProperty> properties, SingletonCardProperty p) {
-		// We won't consume singleton cards, just not interesting.
-		if (p.num_cards == 1)
-			return;
-		boolean add_p = true;
-		for (SingletonCardProperty pp : properties) {
-			if (p.IsExactType(pp)) {
-				add_p = false;
-				break;
-			} else if (p.IsBiggerTypeThan(pp)) {
-				pp.Copy(p);
-				add_p = false;
-				break;
-			} else if (pp.IsBiggerTypeThan(p)) {
-				add_p = false;
-				break;
-			}
-		}
-		if (add_p)
-			properties.add(p);
-	}
-	
-	/**
-	 * Judge if property p could possibly exist in suit.  Note that p could exist in a much higher form.
-	 * For instance, you ask me if a pair exist in suit heart.  I might say that if a pair were to exist, it
-	 * has to be in the form of 4 of a kind.
-	 * 
-	 * @param p a SingletonCardProperty
-	 * @param suit 
-	 * @return a vector of possible property types that p could take in.  Empty if p doesn't exist in any form.
-	 */
-	public Vector<SingletonCardProperty> IsPropertyAvailableInSuit(SingletonCardProperty p, int suit) {
-		Vector<SingletonCardProperty> possible_types = new Vector<SingletonCardProperty>();
-		if (SuitInfo(suit) == VOID)
-			return possible_types;
-		possible_types.add(p.clone());
-		for (PropertyTypeInfo info : property_type_info.get(suit)) {
-			boolean match = false;
-			for (SingletonCardProperty pp : info.void_properties) {
-				if (p.IsBiggerTypeThan(pp)) {
-					match = true;
-					break;
-				}
-			}
-			if (match) {
-				if (info.maybe_properties.size() == 0) {
-					possible_types.clear();
-					return possible_types;
-				}
-				for (SingletonCardProperty pp : info.maybe_properties) {
-					if (pp.num_identical_cards >= p.num_identical_cards)
-						ConsumePropertyType(possible_types,
-								SingletonCardProperty.CreatePropertyOfType(pp.num_identical_cards,
-										Math.max(pp.num_sequences, p.num_sequences)));
-				}
-			}
-		}
-		return possible_types;
-	}
-	
-	private void UpdatePropertyTypeInfo(Vector<SingletonCardProperty> missing_properties,
-			SingletonCardProperty lead_property, int suit) {
-		PropertyTypeInfo new_info = new PropertyTypeInfo();
-		new_info.lead_property = lead_property.clone();
-		new_info.void_properties = (Vector<SingletonCardProperty>) missing_properties.clone();
-		// There are two new maybe_property candidates.
-		// Note the ordered-ness of the maybe_properties.
-		if (lead_property.num_identical_cards < analyzer.numDecks) {
-			SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(lead_property.num_identical_cards + 1, 1);
-			new_info.maybe_properties.add(p);
-		}
-		if (missing_properties.size() == 1 && lead_property.IsExactType(missing_properties.get(0))
-				&& lead_property.num_sequences > 1) {
-			SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(lead_property.num_identical_cards,
-					lead_property.num_sequences + 1);
-			new_info.maybe_properties.add(p);
-		}
-		for (PropertyTypeInfo info : property_type_info.get(suit)) {
-			if (new_info.lead_property.IsExactType(info.lead_property)) {
-				// Merge the two types.  Note that new_info usually improves upon info.
-				// Because of the ordering, but not always.  For instance, player could
-				// be hiding a triple and play against a pair at the right moment.
-				if (new_info.maybe_properties.size() < info.maybe_properties.size())
-					info.maybe_properties = new_info.maybe_properties;
-				for (SingletonCardProperty p : missing_properties) {
-					analyzer.EliminateProperty(info.void_properties, p);
-				}
-				return;
-			}
-		}
-		property_type_info.get(suit).add(new_info);
-	}
-	
-	/**
-	 * Add cards to our collection.  Maintain sortedness in each suit.
-	 * 
-	 * @param new_cards
-	 */
-	public void AddCards(Card[] new_cards_2, Card[] lead_play_2) {
-		if (new_cards_2 == null | new_cards_2.length == 0)
-			return ;
-		Card[] new_cards = new_cards_2.clone();
-		Card[] lead_play = null;
-		if (lead_play_2 != null)
-			lead_play = lead_play_2.clone();
-		// Util.g("Cards To Be added: ", Arrays.toString(new_cards));
-		// Util.g("Current cards: ", toString());
-		int lead_suit = Card.SUIT_UNDEFINED;
-		if (lead_play != null)
-			lead_suit = lead_play[0].CalculatePlaySuit(trumpSuit, trumpNumber);
-		boolean followed_suit = true;
-		Vector<Card[]> separated_cards = SeparateIntoSameSuit(new_cards, trumpSuit, trumpNumber);
-		for (Card[] same_suit_cards : separated_cards) {
-			// separated_cards are already sorted via SeparateIntoSameSuit.
-			int suit = same_suit_cards[0].CalculatePlaySuit(trumpSuit, trumpNumber);
-			if (lead_play != null && suit != lead_suit) {
-				suit_info[lead_suit] = VOID;
-				suit_info[suit] = EXIST;
-				followed_suit = false;
-			}
-			Vector<Card> current_cards = suited_cards.get(suit);
-			Collections.sort(current_cards, comparator);
-			int i = 0;  // index for same_suit_cards
-			int j = 0;  // index for current_cards
-			while (j < current_cards.size() & i < same_suit_cards.length) {
-				Card c = current_cards.get(j);
-				while (comparator.compare(same_suit_cards[i], c) <= 0) {
-					current_cards.add(j, same_suit_cards[i]);
-					i++;
-					j++;
-					if (i == same_suit_cards.length)
-						break;
-				}
-				j++;
-			}
-			for (int k = i; k < same_suit_cards.length; ++k) {
-				current_cards.add(current_cards.size(), same_suit_cards[k]);
-			}
-		}
-		// Util.g("Current cards after addition: ", toString());
-		if (lead_play != null && followed_suit) {
-			suit_info[lead_suit] = EXIST;
-			// Now do an analysis on the properties of the new_cards.	
-			CardProperty lead_property = new CardProperty(lead_play, trumpSuit, trumpNumber);
-			Vector<SingletonCardProperty> missing_properties = new Vector<SingletonCardProperty>();
-			for (SingletonCardProperty p : lead_property.properties) {
-				if (p.num_cards == 1)
-					continue;  // not an interesting property to us.
-				missing_properties.clear();
-				Vector<SingletonCardProperty> tmp_property_vector = new Vector<SingletonCardProperty>();
-				tmp_property_vector.add(p);
-				analyzer.FindAllForcedProperties(tmp_property_vector, new_cards, missing_properties);
-				if (missing_properties.size() > 0)
-					UpdatePropertyTypeInfo(missing_properties, p, lead_suit);
-			}
-		}
-	}
-
-	public Card[] getAllCards() {
-		Vector<Card> current_hand = new Vector<Card>();
-		for (Vector<Card> cards : suited_cards) {
-			current_hand.addAll(cards);
-		}
-		return current_hand.toArray(new Card[current_hand.size()]);
-	}
-	
-}
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * This is intended by AIPlayer to either keep track of their own cards, or opponents played cards.
+ * So one CardOrganizer per player.  We can probably add a lot of functionality here to keep track of 
+ * various properties for each player.  Functions like: HasSuit(), or HasPropertyInSuit(SingletonCardProperty)
+ * etc.  For now, I just implement the simple thing of organize cards into suits and maintain them as we play along.
+ * important thing: keep things sorted in the PerDealCardComparator order.  Is not, please start to make local
+ * copies.  Some cares are from TractorGameState, and they need to be sorted.
+ * The hand itself is stored as a count per card index (plus a total per suit), so adding, deleting and
+ * counting cards never sorts or allocates.  The sorted Vector<Card> per suit is only rebuilt from the counts
+ * when somebody asks for it through GetSuit() or getAllCards().
+ * 
+ * @author anzhu
+ *
+ */
+public class CardOrganizer {
+	// suit situation.  default is UNCERTAIN.  VOID is definitely. EXIST means that we see the card played.
+	// It's probably a bit surer than UNCERTAIN.
+	// MQC: put these in rough order of sureness of void.
+	public static int UNCERTAIN = 0;
+	public static int VOID = -1;
+	public static int EXIST = 1;
+	
+	public PerDealCardComparator comparator;
+	DealOrdering ordering;
+	// Number of cards we hold for each card index, and the total number of cards per (play) suit.
+	int[] num_cards;
+	int[] num_cards_in_suit;
+	// For each play suit, the card indices of that suit in PerDealCardComparator order.  Computed once
+	// per deal, so that the sorted suits can be rebuilt from num_cards without sorting.
+	int[][] suit_order;
+	// Sorted cards per suit, rebuilt lazily from num_cards.  suit_changed marks the stale ones.
+	Vector<Vector<Card> > suited_cards;
+	boolean[] suit_changed;
+	// CardProperty per suit, as returned by GetSuitProperty.  suit_version[suit] goes up whenever
+	// cards are added to or deleted from the suit, and the cached property is only good while
+	// suit_property_version[suit] matches it.
+	CardProperty[] suit_properties;
+	int[] suit_version;
+	int[] suit_property_version;
+	int[] suit_info;
+	int trumpSuit;
+	int trumpNumber;
+	CardAnalyzer analyzer;
+	
+	public class PropertyTypeInfo {
+		// The lead property that initiated this.  Used to identify and group together
+		// PropertyTypeInfo.  We should have only one such object per lead_property type per suit.
+		public SingletonCardProperty lead_property;
+		// The properties that are missing when matching the lead_property.  Note that
+		// we store the lowest possible property that is missing.  For instance, AAAKKK,
+		// we played 777456, then a pair will be stored here.
+		public Vector<SingletonCardProperty> void_properties;
+		// The properties that could exist and not played due to the fact that it has higher type.
+		// Note that it depends on void_properties as well.  For instance AAAKKK, if we played 777222,
+		// then the maybe_properties will contain the types: 4444 (4 of a kind), and AAAKKKQQQ (3-3).
+		// However, if we played 777228, then AAAKKKQQQ(3-3) can't be in the maybe_properties.
+		// Think of maybe_properties being empty as equivalent as holding a non-existing property.
+		public Vector<SingletonCardProperty> maybe_properties;
+		
+		public PropertyTypeInfo() {
+			lead_property = null;
+			void_properties = new Vector<SingletonCardProperty>();
+			maybe_properties = new Vector<SingletonCardProperty>();
+		}
+	};
+	
+	Vector<Vector<PropertyTypeInfo>> property_type_info;
+	/**
+	 * Get cards of the same specified by "suit".  Assume that cards have been
+	 * sorted the property PerDealCardComparator. Preserves ordering in cards
+	 * passed in.
+	 * 
+	 * @param suit Should be calculated through CalculatePlaySuit first
+	 * @param sorted_cards Sorted cards
+	 * @param trump suit
+	 * @param trump number
+	 * @return Card array that contains the suit.
+	 */
+	static public  Card[] GetSameSuitCards(int suit, Card[] sorted_cards, int trump_suit, int trump_number) {
+		Vector<Card> same_suit_cards = new Vector<Card>();
+		for (int i = 0; i < sorted_cards.length; ++i) {
+			if (sorted_cards[i].CalculatePlaySuit(trump_suit, trump_number) == suit) {
+				same_suit_cards.add(sorted_cards[i]);
+			} else if (same_suit_cards.size() != 0) {
+				break;  // cards is sorted.
+			}
+		}
+		return same_suit_cards.toArray(new Card[0]);
+	}
+	
+	/**
+	 * Separate cards passed in into same suit card vector.  cards will
+	 * become sorted afterwards.
+	 * 
+	 * @param cards cards to be separated, don't have to be sorted
+	 * @param suit trump suit
+	 * @param number trump number
+	 * @return
+	 */
+	static public Vector<Card[]> SeparateIntoSameSuit(Card[] cards, int suit, int number) {
+		if (cards == null || cards.length == 0)
+			return null;
+		PerDealCardComparator comparator = new PerDealCardComparator(suit, number);
+		DealOrdering ordering = comparator.GetOrdering();
+		Vector<Card[]> cards_array  = new Vector<Card[]>();
+		Arrays.sort(cards, comparator);
+		int start = 0;
+		int initial_suit = cards[0].CalculatePlaySuit(ordering);
+		for (int i = 1; i <= cards.length; ++i) {
+			int current_suit = i < cards.length ? cards[i].CalculatePlaySuit(ordering) : Card.SUIT_UNDEFINED;
+			if (current_suit != initial_suit) {
+				Card[] same_suit_cards = new Card[i - start];
+				System.arraycopy(cards, start, same_suit_cards, 0, i - start);
+				cards_array.add(same_suit_cards);
+				start = i;
+				initial_suit = current_suit;
+			}
+		}
+		return cards_array;
+	}
+
+	/**
+	 * @param cards
+	 * @param trump_suit
+	 * @param trump_number
+	 */
+	public CardOrganizer(int trump_suit, int trump_number, CardAnalyzer a) {
+		suited_cards = new Vector<Vector<Card> >();
+		property_type_info = new Vector<Vector<PropertyTypeInfo>>();
+		for (int i = 0; i < 5; i++) {
+			suited_cards.add(new Vector<Card>());
+			property_type_info.add(new Vector<PropertyTypeInfo>());
+		}
+		trumpSuit = trump_suit;
+		trumpNumber = trump_number;
+		comparator = new PerDealCardComparator(trump_suit, trump_number);
+		ordering = comparator.GetOrdering();
+		num_cards = new int[Card.CARDS_PER_DECK];
+		num_cards_in_suit = new int[Card.SUIT_NUM_SUITS];
+		suit_changed = new boolean[Card.SUIT_NUM_SUITS];
+		suit_properties = new CardProperty[Card.SUIT_NUM_SUITS];
+		suit_version = new int[Card.SUIT_NUM_SUITS];
+		suit_property_version = new int[Card.SUIT_NUM_SUITS];
+		suit_order = CalculateSuitOrder(ordering);
+		suit_info = new int[Card.SUIT_NUM_SUITS];
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			suit_info[i] = UNCERTAIN;
+		}
+		analyzer = a;
+		
+	}
+
+	/**
+	 * A copy of other that goes on separately, working for analyzer a.
+	 *
+	 * @param other
+	 * @param a
+	 */
+	public CardOrganizer(CardOrganizer other, CardAnalyzer a) {
+		suited_cards = new Vector<Vector<Card> >();
+		property_type_info = new Vector<Vector<PropertyTypeInfo>>();
+		for (int i = 0; i < 5; i++) {
+			suited_cards.add(new Vector<Card>(other.suited_cards.get(i)));
+			Vector<PropertyTypeInfo> infos = new Vector<PropertyTypeInfo>();
+			for (PropertyTypeInfo info : other.property_type_info.get(i)) {
+				PropertyTypeInfo new_info = new PropertyTypeInfo();
+				new_info.lead_property = info.lead_property;
+				new_info.void_properties.addAll(info.void_properties);
+				new_info.maybe_properties.addAll(info.maybe_properties);
+				infos.add(new_info);
+			}
+			property_type_info.add(infos);
+		}
+		trumpSuit = other.trumpSuit;
+		trumpNumber = other.trumpNumber;
+		comparator = other.comparator;
+		ordering = other.ordering;
+		num_cards = other.num_cards.clone();
+		num_cards_in_suit = other.num_cards_in_suit.clone();
+		suit_changed = other.suit_changed.clone();
+		// Cached properties are never changed in place, so they can be shared.
+		suit_properties = other.suit_properties.clone();
+		suit_version = other.suit_version.clone();
+		suit_property_version = other.suit_property_version.clone();
+		suit_order = other.suit_order;
+		suit_info = other.suit_info.clone();
+		analyzer = a;
+	}
+	
+
+	/**
+	 * For each play suit, returns the card indices belonging to that suit, ordered by
+	 * PerDealCardComparator.
+	 * 
+	 * @param ordering
+	 * @return suit_order[suit] is the ordered indices for suit.
+	 */
+	static int[][] CalculateSuitOrder(DealOrdering ordering) {
+		int[] deck = new int[Card.CARDS_PER_DECK];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i)
+			deck[ordering.Rank(i)] = i;
+		int[] suit_size = new int[Card.SUIT_NUM_SUITS];
+		for (int index : deck)
+			suit_size[ordering.PlaySuit(index)]++;
+		int[][] order = new int[Card.SUIT_NUM_SUITS][];
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			order[i] = new int[suit_size[i]];
+			suit_size[i] = 0;
+		}
+		for (int index : deck) {
+			int suit = ordering.PlaySuit(index);
+			order[suit][suit_size[suit]++] = index;
+		}
+		return order;
+	}
+
+	/**
+	 * Get rid of the expired cards in our cards.  The expired cards
+	 * need to be in our hand.
+	 *  
+	 * @param expired_cards
+	 */
+	public void DeleteCards(Card[] expired_cards) {
+		if (expired_cards == null || expired_cards.length == 0)
+			return;
+		// Usually a single property of a single suit is played, see if we can keep the cached
+		// property of that suit.
+		int first_suit = expired_cards[0].CalculatePlaySuit(ordering);
+		boolean update_cached_property = IsSuitPropertyCached(first_suit);
+		for (Card c : expired_cards) {
+			int index = c.GetIndex();
+			if (num_cards[index] == 0) {
+				Util.e("CardOrganizer", "Deleting card not in hand: " + c.toString());
+				update_cached_property = false;
+				continue;
+			}
+			int suit = c.CalculatePlaySuit(ordering);
+			if (suit != first_suit)
+				update_cached_property = false;
+			num_cards[index]--;
+			num_cards_in_suit[suit]--;
+			suit_changed[suit] = true;
+			suit_version[suit]++;
+		}
+		if (update_cached_property && DeleteCachedProperty(first_suit, expired_cards))
+			suit_property_version[first_suit] = suit_version[first_suit];
+	}
+
+	private boolean IsSuitPropertyCached(int suit) {
+		return suit_properties[suit] != null && suit_property_version[suit] == suit_version[suit];
+	}
+
+	/**
+	 * Try to remove deleted_cards from the cached property of suit without recomputing it.
+	 * This only works when deleted_cards is exactly one property that doesn't overlap with
+	 * anything else, and all copies of those cards are gone.  Otherwise the remaining cards
+	 * might form different properties.
+	 * 
+	 * @param suit
+	 * @param deleted_cards cards already deleted from num_cards.
+	 * @return true iff the cached property was updated.
+	 */
+	private boolean DeleteCachedProperty(int suit, Card[] deleted_cards) {
+		CardProperty property = suit_properties[suit];
+		if (num_cards_in_suit[suit] == 0)
+			return false;
+		for (Card c : deleted_cards) {
+			if (num_cards[c.GetIndex()] != 0)
+				return false;
+		}
+		SingletonCardProperty deleted_property = null;
+		for (SingletonCardProperty p : property.properties) {
+			if (p.num_cards == deleted_cards.length && !p.has_other_combo && SameCards(p.ToCards(), deleted_cards)) {
+				deleted_property = p;
+				break;
+			}
+		}
+		if (deleted_property == null)
+			return false;
+		for (SingletonCardProperty p : property.secondary_properties) {
+			for (Card c : p.ToCards()) {
+				for (Card deleted : deleted_cards) {
+					if (c.GetIndex() == deleted.GetIndex())
+						return false;
+				}
+			}
+		}
+		// Others may still hold the old property, so swap in a copy rather than edit it.
+		suit_properties[suit] = property.Without(deleted_property);
+		return true;
+	}
+
+	private boolean SameCards(Card[] sorted_cards, Card[] cards) {
+		Card[] sorted = cards.clone();
+		Arrays.sort(sorted, comparator);
+		for (int i = 0; i < sorted.length; ++i) {
+			if (sorted[i].GetIndex() != sorted_cards[i].GetIndex())
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Sorted cards of the suit.  The returned Vector is shared, please don't alter it.
+	 * 
+	 * @param suit
+	 * @return
+	 */
+	public Vector<Card> GetSuit(int suit) {
+		Vector<Card> cards = suited_cards.get(suit);
+		if (suit_changed[suit]) {
+			cards.clear();
+			for (int index : suit_order[suit]) {
+				for (int j = 0; j < num_cards[index]; ++j)
+					cards.add(Card.of(index));
+			}
+			suit_changed[suit] = false;
+		}
+		return cards;
+	}
+	
+	/**
+	 * Number of copies of the card we hold.
+	 * 
+	 * @param card
+	 * @return
+	 */
+	public int NumCards(Card card) {
+		return num_cards[card.GetIndex()];
+	}
+	
+	/**
+	 * Check if all the cards are held, duplicates are counted.
+	 * 
+	 * @param cards
+	 * @return true iff we hold every card in cards.
+	 */
+	public boolean ContainsCards(Card[] cards) {
+		// Counted on the side, so that readers on other threads never see num_cards change.
+		int[] wanted = new int[Card.CARDS_PER_DECK];
+		for (Card c : cards) {
+			int index = c.GetIndex();
+			if (++wanted[index] > num_cards[index])
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * CardProperty of the cards in suit.  The returned CardProperty is cached until the suit
+	 * changes and may be read from several threads, so please don't alter it, not even by
+	 * sorting its properties; use CardProperty.SortedProperties for that.
+	 * 
+	 * @param suit
+	 * @return
+	 */
+	public CardProperty GetSuitProperty(int suit) {
+		if (!IsSuitPropertyCached(suit)) {
+			suit_properties[suit] = CardPropertyCache.Get(GetSuit(suit).toArray(new Card[0]), trumpSuit, trumpNumber);
+			suit_property_version[suit] = suit_version[suit];
+		}
+		return suit_properties[suit];
+	}
+	
+	public String toString() {
+		String cards_string = "";
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			cards_string += Arrays.toString(GetSuit(i).toArray(new Card[0]));
+		}
+		return cards_string;
+	}
+	
+	/**
+	 * Used to get the suit info for a player for which we don't know their initial hand.
+	 * 
+	 * @param suit
+	 * @return
+	 */
+	public int SuitInfo(int suit) {
+		return suit_info[suit];
+	}
+	
+	/**
+	 * Used to get the suit for myself, which is accurate information on exactly the number
+	 * of cards remaining.
+	 * 
+	 * @param suit
+	 * @return
+	 */
+	public int CardsInSuit(int suit) {
+		return num_cards_in_suit[suit];
+	}
+	
+	/**
+	 * Given a bunch of properties, decide that if p should be added to properties.
+	 * p will either replace a smaller property, or consumed by a bigger property
+	 * already in the collection.
+	 * 
+	 * @param properties A bunch of properties that are not compatible with each other. not in any sorted order.
+	 * @param p
+	 * @param want_points whether we favor exact type properties with more points, or less points.
+	 */
+	public void ConsumePropertyType(Vector<SingletonCardProperty> properties, SingletonCardProperty p) {
+		// We won't consume singleton cards, just not interesting.
+		if (p.num_cards == 1)
+			return;
+		boolean add_p = true;
+		for (SingletonCardProperty pp : properties) {
+			if (p.IsExactType(pp)) {
+				add_p = false;
+				break;
+			} else if (p.IsBiggerTypeThan(pp)) {
+				pp.Copy(p);
+				add_p = false;
+				break;
+			} else if (pp.IsBiggerTypeThan(p)) {
+				add_p = false;
+				break;
+			}
+		}
+		if (add_p)
+			properties.add(p);
+	}
+	
+	/**
+	 * Judge if property p could possibly exist in suit.  Note that p could exist in a much higher form.
+	 * For instance, you ask me if a pair exist in suit heart.  I might say that if a pair were to exist, it
+	 * has to be in the form of 4 of a kind.
+	 * 
+	 * @param p a SingletonCardProperty
+	 * @param suit 
+	 * @return a vector of possible property types that p could take in.  Empty if p doesn't exist in any form.
+	 */
+	public Vector<SingletonCardProperty> IsPropertyAvailableInSuit(SingletonCardProperty p, int suit) {
+		Vector<SingletonCardProperty> possible_types = new Vector<SingletonCardProperty>();
+		if (SuitInfo(suit) == VOID)
+			return possible_types;
+		possible_types.add(p.clone());
+		for (PropertyTypeInfo info : property_type_info.get(suit)) {
+			boolean match = false;
+			for (SingletonCardProperty pp : info.void_properties) {
+				if (p.IsBiggerTypeThan(pp)) {
+					match = true;
+					break;
+				}
+			}
+			if (match) {
+				if (info.maybe_properties.size() == 0) {
+					possible_types.clear();
+					return possible_types;
+				}
+				for (SingletonCardProperty pp : info.maybe_properties) {
+					if (pp.num_identical_cards >= p.num_identical_cards)
+						ConsumePropertyType(possible_types,
+								SingletonCardProperty.CreatePropertyOfType(pp.num_identical_cards,
+										Math.max(pp.num_sequences, p.num_sequences)));
+				}
+			}
+		}
+		return possible_types;
+	}
+	
+	private void UpdatePropertyTypeInfo(Vector<SingletonCardProperty> missing_properties,
+			SingletonCardProperty lead_property, int suit) {
+		PropertyTypeInfo new_info = new PropertyTypeInfo();
+		new_info.lead_property = lead_property.clone();
+		new_info.void_properties = (Vector<SingletonCardProperty>) missing_properties.clone();
+		// There are two new maybe_property candidates.
+		// Note the ordered-ness of the maybe_properties.
+		if (lead_property.num_identical_cards < analyzer.numDecks) {
+			SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(lead_property.num_identical_cards + 1, 1);
+			new_info.maybe_properties.add(p);
+		}
+		if (missing_properties.size() == 1 && lead_property.IsExactType(missing_properties.get(0))
+				&& lead_property.num_sequences > 1) {
+			SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(lead_property.num_identical_cards,
+					lead_property.num_sequences + 1);
+			new_info.maybe_properties.add(p);
+		}
+		for (PropertyTypeInfo info : property_type_info.get(suit)) {
+			if (new_info.lead_property.IsExactType(info.lead_property)) {
+				// Merge the two types.  Note that new_info usually improves upon info.
+				// Because of the ordering, but not always.  For instance, player could
+				// be hiding a triple and play against a pair at the right moment.
+				if (new_info.maybe_properties.size() < info.maybe_properties.size())
+					info.maybe_properties = new_info.maybe_properties;
+				for (SingletonCardProperty p : missing_properties) {
+					analyzer.EliminateProperty(info.void_properties, p);
+				}
+				return;
+			}
+		}
+		property_type_info.get(suit).add(new_info);
+	}
+	
+	/**
+	 * Add cards to our collection.  Maintain sortedness in each suit.
+	 * 
+	 * @param new_cards
+	 */
+	public void AddCards(Card[] new_cards_2, Card[] lead_play_2) {
+		if (new_cards_2 == null | new_cards_2.length == 0)
+			return ;
+		Card[] new_cards = new_cards_2.clone();
+		Card[] lead_play = null;
+		if (lead_play_2 != null)
+			lead_play = lead_play_2.clone();
+		int lead_suit = Card.SUIT_UNDEFINED;
+		if (lead_play != null)
+			lead_suit = lead_play[0].CalculatePlaySuit(ordering);
+		boolean followed_suit = true;
+		for (Card c : new_cards) {
+			int suit = c.CalculatePlaySuit(ordering);
+			if (lead_play != null && suit != lead_suit) {
+				suit_info[lead_suit] = VOID;
+				suit_info[suit] = EXIST;
+				followed_suit = false;
+			}
+			num_cards[c.GetIndex()]++;
+			num_cards_in_suit[suit]++;
+			suit_changed[suit] = true;
+			suit_version[suit]++;
+		}
+		// Util.g("Current cards after addition: ", toString());
+		if (lead_play != null && followed_suit) {
+			suit_info[lead_suit] = EXIST;
+			// Now do an analysis on the properties of the new_cards.	
+			Arrays.sort(new_cards, comparator);
+			CardProperty lead_property = CardPropertyCache.Get(lead_play, trumpSuit, trumpNumber);
+			Vector<SingletonCardProperty> missing_properties = new Vector<SingletonCardProperty>();
+			for (SingletonCardProperty p : lead_property.properties) {
+				if (p.num_cards == 1)
+					continue;  // not an interesting property to us.
+				missing_properties.clear();
+				Vector<SingletonCardProperty> tmp_property_vector = new Vector<SingletonCardProperty>();
+				tmp_property_vector.add(p);
+				analyzer.FindAllForcedProperties(tmp_property_vector, new_cards, missing_properties);
+				if (missing_properties.size() > 0)
+					UpdatePropertyTypeInfo(missing_properties, p, lead_suit);
+			}
+		}
+	}
+
+	public Card[] getAllCards() {
+		int total_cards = 0;
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i)
+			total_cards += num_cards_in_suit[i];
+		Card[] current_hand = new Card[total_cards];
+		int index = 0;
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			for (Card c : GetSuit(i))
+				current_hand[index++] = c;
+		}
+		return current_hand;
+	}
+	
+}
@@ -0,0 +1,134 @@
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A global memo of CardProperty results.  The same holdings get analyzed over and over
+ * (per player, per FollowCardSet, per round), and CalculateAllProperties isn't cheap.
+ *
+ * Entries are keyed by trump suit, trump number and a Zobrist hash of the card multiset,
+ * and evicted in LRU order once there are MAX_ENTRIES of them.  Get(...) hands out the
+ * cached CardProperty itself, so it's read only: callers sort a copy of its properties
+ * (CardProperty.SortedProperties) and clone a SingletonCardProperty before converting it.
+ *
+ * Safe to use from several AI threads at once.
+ *
+ * @author anzhu
+ */
+public class CardPropertyCache {
+	public static final int MAX_ENTRIES = 4096;
+	// Zobrist table: one random number per (card index, n-th copy of the card).
+	private static final int MAX_COPIES = Tractor.MAX_DECKS;
+	private static final long[][] card_keys = new long[Card.CARDS_PER_DECK][MAX_COPIES];
+	private static final long[][] trump_keys = new long[Card.SUIT_NUM_SUITS][Card.NUMBER_NO_GUARANTEE + 1];
+	static {
+		// Fixed seed, so that hashes are the same from run to run.
+		Random rng = new Random(0x5eed1e55L);
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i)
+			for (int j = 0; j < MAX_COPIES; ++j)
+				card_keys[i][j] = rng.nextLong();
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i)
+			for (int j = 0; j <= Card.NUMBER_NO_GUARANTEE; ++j)
+				trump_keys[i][j] = rng.nextLong();
+	}
+
+	private static class Entry {
+		int trump_suit;
+		int trump_number;
+		int[] num_cards;  // to rule out hash collisions.
+		CardProperty property;
+	}
+
+	private static final LinkedHashMap<Long, Entry> entries =
+		new LinkedHashMap<Long, Entry>(MAX_ENTRIES * 4 / 3, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+				return size() > MAX_ENTRIES;
+			}
+	};
+	private static long hits = 0;
+	private static long misses = 0;
+
+	/**
+	 * Same as new CardProperty(cards, trump_suit, trump_number), including sorting cards,
+	 * but remembers the result.
+	 *
+	 * @param cards
+	 * @param trump_suit
+	 * @param trump_number
+	 * @return a CardProperty that may be shared, please don't alter it.
+	 */
+	public static CardProperty Get(Card[] cards, int trump_suit, int trump_number) {
+		if (cards == null || cards.length == 0 ||
+			trump_suit < 0 || trump_suit >= Card.SUIT_NUM_SUITS ||
+			trump_number < 0 || trump_number > Card.NUMBER_NO_GUARANTEE)
+			return new CardProperty(cards, trump_suit, trump_number);
+		int[] num_cards = new int[Card.CARDS_PER_DECK];
+		long hash = trump_keys[trump_suit][trump_number];
+		for (Card c : cards) {
+			int index = c.GetIndex();
+			if (index < 0 || num_cards[index] >= MAX_COPIES)
+				return new CardProperty(cards, trump_suit, trump_number);
+			hash ^= card_keys[index][num_cards[index]++];
+		}
+		// CardProperty sorts the cards passed in, and some callers count on that.
+		Arrays.sort(cards, new PerDealCardComparator(trump_suit, trump_number));
+		Long key = hash;
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry != null && (entry.trump_suit != trump_suit || entry.trump_number != trump_number ||
+					!Arrays.equals(entry.num_cards, num_cards)))
+				entry = null;
+			if (entry != null)
+				hits++;
+			else
+				misses++;
+		}
+		if (entry != null)
+			return entry.property;
+		// Compute outside of the lock, another thread might do the same, which is harmless.
+		entry = new Entry();
+		entry.trump_suit = trump_suit;
+		entry.trump_number = trump_number;
+		entry.num_cards = num_cards;
+		entry.property = new CardProperty(cards, trump_suit, trump_number);
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+		return entry.property;
+	}
+
+	public static long GetHits() {
+		synchronized (entries) {
+			return hits;
+		}
+	}
+
+	public static long GetMisses() {
+		synchronized (entries) {
+			return misses;
+		}
+	}
+
+	public static double GetHitRate() {
+		synchronized (entries) {
+			if (hits + misses == 0)
+				return 0;
+			return (double) hits / (hits + misses);
+		}
+	}
+
+	public static void Clear() {
+		synchronized (entries) {
+			entries.clear();
+			hits = 0;
+			misses = 0;
+		}
+	}
+}
@@ -1,191 +1,421 @@
-package com.android.tractor;
-
-import java.util.Vector;
-
-/**
- * A class that keeps track of all the remaining cards out there
- * in a deck, answers questions like how good is this card property
- * w.r.t. the current deck.
- * @author anzhu
- *
- */
-public class CardTracker {
-	int[] num_cards;
-	int trumpSuit;
-	int trumpNumber;
-	int numDecks;
-	// TODO: we probably need a real time card property comparator here. i.e., based on
-	// remaining cards, calculate the probability of the current property, and do some ranking.
-	
-	public CardTracker(int suit, int number, int num_decks) {
-		trumpSuit = suit;
-		trumpNumber = number;
-		numDecks = num_decks;
-		num_cards = new int[Card.CARDS_PER_DECK];
-		for (int i = 0; i <  Card.CARDS_PER_DECK; ++i)
-			num_cards[i] = num_decks;
-	}
-	
-	public void DeleteCards(Card[] cards) {
-		for (Card c : cards) {
-			num_cards[c.GetIndex()]--;
-		}
-	}
-	
-	/**
-	 * Based on the existing_played_cards, return the probability of a particular property p,
-	 * i.e., high chance of winning in the same suit.  We'll factor in the number of players
-	 * some what.  The idea is to calculate for cards higher than p that's remaining, what are
-	 * the chance of something bigger property will form and beat p.
-	 * 
-	 * @param p
-	 * @param num_possible_players  Number of players that could possibly have this property.
-	 * For instance, maybe p is a pair, and we know certain players don't have pairs.
-	 * @param total_players Total number of players involved that can beat property p (usually it
-	 * would be numPlayers - 1).
-	 * @return the winning probability of p.
-	 */
-	public double CurrentPropertyProbability(SingletonCardProperty p, int total_players, boolean fixed_targeting_player) {
-		double probability = 1;
-		int suit = p.suit;
-		int highest_number_for_suit = GetHighestNumberForSuit(suit);
-		int lowest_number_for_suit = p.leading_number;
-		if (suit == Card.SUIT_NO_TRUMP)
-			lowest_number_for_suit = Math.max(lowest_number_for_suit, SingletonCardProperty.MAJOR_TRUMP_NUMBER);
-		for (int i = highest_number_for_suit; i > lowest_number_for_suit; i = GetNextLowerNumber(i, trumpNumber)) {
-			SingletonCardProperty pp = new SingletonCardProperty(trumpSuit, trumpNumber);
-			pp.Copy(p);
-			pp.leading_number = i;
-			// pp should always be valid, for NO_TRUMP it's tricky, but since p is valid to start with,
-			// so must pp.
-			int ending_number = i - pp.num_sequences + 1;
-			// Normally we should check for ending_number > 1, but it's gonna be bigger than p.leading_number
-			// so we are fine here.
-			if (i > trumpNumber && ending_number <= trumpNumber)
-				ending_number--;
-			Vector<Integer> pp_num_cards = new Vector<Integer>();
-			if (i < SingletonCardProperty.MINOR_TRUMP_NUMBER ||
-					ending_number > SingletonCardProperty.MINOR_TRUMP_NUMBER) {
-				// Simple case.
-				int number = i;
-				for (int j = 0; j < pp.num_sequences; ++j) {
-					pp_num_cards.add(num_cards[SingletonCardProperty.ConvertToCardIndex(number, suit, trumpNumber)]);
-					number = GetNextLowerNumber(number, trumpNumber);
-				}
-				probability *= (1 - pp.Probability(total_players, pp_num_cards, fixed_targeting_player));
-				if (probability == 0.0) return 0;
-			} else {
-				// We have to involve MINOR_TRUMP_NUMBER
-				for (int k = 0; k < 4; ++k) {
-					pp_num_cards.clear();
-					if (k == suit)
-						continue;
-					int number = i;
-					int local_suit = suit;
-					for (int j = 0; j < pp.num_sequences; ++j) {
-						if (number == SingletonCardProperty.MINOR_TRUMP_NUMBER)
-							local_suit = k;
-						else
-							local_suit = suit;
-						pp_num_cards.add(num_cards[SingletonCardProperty.ConvertToCardIndex(number, local_suit, trumpNumber)]);
-						number = GetNextLowerNumber(number, trumpNumber);
-					}
-					probability *= (1 - pp.Probability(total_players, pp_num_cards, fixed_targeting_player));
-					if (probability == 0.0) return 0;
-				}
-			}
-		}
-		return probability;
-	}
-	
-	//public int LargestPointCardsRemaining
-	
-	/**
-	 * Return all points remaining still in the suit, a minimum leading_number is provided
-	 * @param suit
-	 * @param leading_number
-	 * @return
-	 */
-	public int TotalPointsRemainingInSuit(int suit, int leading_number) {
-		int max_leading_number = GetHighestNumberForSuit(suit);
-		int total_points = 0;
-		for (int i = max_leading_number; i > leading_number; --i) {
-			if (i != SingletonCardProperty.MINOR_TRUMP_NUMBER) {
-				int index = SingletonCardProperty.ConvertToCardIndex(i, suit, trumpNumber);
-				total_points += num_cards[index] * Card.PointsBasedOnIndex(index);
-			} else if (trumpNumber == SingletonCardProperty.FIVE ||
-					trumpNumber == SingletonCardProperty.TEN ||
-					trumpNumber == SingletonCardProperty.KING) {
-				// Sigh, no through all of them
-				for (int j = 0; j < 4; ++j) {
-					if (j == trumpSuit)
-						continue;
-					int index = SingletonCardProperty.ConvertToCardIndex(i, j, trumpNumber);
-					total_points += num_cards[index] * Card.PointsBasedOnIndex(index);
-				}
-			}
-		}
-		return total_points;
-	}
-	
-	public int TotalCardsInSuit(int suit) {
-		if (suit != trumpSuit && trumpSuit != Card.SUIT_NO_TRUMP)
-			return (Card.CARDS_PER_SUIT - 1) * numDecks;
-		if (suit != trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
-			return Card.CARDS_PER_SUIT * numDecks;
-		if (suit == trumpSuit && trumpSuit != Card.SUIT_NO_TRUMP)
-			return (Card.CARDS_PER_SUIT + 5) * numDecks;
-		if (suit == trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
-			return 6 * numDecks;
-		return 0;
-	}
-	
-	public int RemainingCardsInSuit(int suit) {
-		int highest_number_for_suit = GetHighestNumberForSuit(suit);
-		int lowest_number_for_suit = GetLowestNumberForSuit(suit);
-		int total_cards = 0;
-		for (int i = highest_number_for_suit; i >= lowest_number_for_suit; i = GetNextLowerNumber(i, trumpNumber)) {
-			if (i != SingletonCardProperty.MINOR_TRUMP_NUMBER) {
-				total_cards += num_cards[SingletonCardProperty.ConvertToCardIndex(i, suit, trumpNumber)];
-			} else {
-				for (int k = 0; k < 4; ++k) {
-					if (k == suit)
-						continue;
-					total_cards += num_cards[SingletonCardProperty.ConvertToCardIndex(i, k, trumpNumber)];	
-				}
-			}
-		}
-		return total_cards;
-	}
-	
-	private int GetHighestNumberForSuit(int suit) {
-		int highest_number_in_suit = SingletonCardProperty.ACE;
-		if (trumpNumber == SingletonCardProperty.ACE)
-			highest_number_in_suit = SingletonCardProperty.KING;
-		// we usually only have 4 suit per deal.  So usually SUIT_NO_TRUMP is undefined,
-		// unless it turns out to be trump_suit.
-		if (suit == Card.SUIT_NO_TRUMP)
-			highest_number_in_suit = SingletonCardProperty.UNDEFINED;
-		if (suit == trumpSuit)
-			highest_number_in_suit = SingletonCardProperty.BIG_JOKER;
-		return highest_number_in_suit;
-	}
-	
-	public int GetLowestNumberForSuit(int suit) {
-		int lowest_number_in_suit = SingletonCardProperty.TWO;
-		if (trumpNumber == SingletonCardProperty.TWO)
-			lowest_number_in_suit = SingletonCardProperty.THREE;
-		if (suit == Card.SUIT_NO_TRUMP)
-			lowest_number_in_suit = SingletonCardProperty.UNDEFINED;
-		if (suit == trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
-			lowest_number_in_suit = SingletonCardProperty.MINOR_TRUMP_NUMBER;
-		return lowest_number_in_suit;
-	}
-	
-	public static int GetNextLowerNumber(int number, int trump_number) {
-		number--;
-		if (number == trump_number)
-			number--;
-		return number;  // number could become UNDEFINED
-	}
-}
+package com.android.tractor;
+
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * A class that keeps track of all the remaining cards out there
+ * in a deck, answers questions like how good is this card property
+ * w.r.t. the current deck.
+ * @author anzhu
+ *
+ */
+public class CardTracker {
+	int[] num_cards;
+	int trumpSuit;
+	int trumpNumber;
+	int numDecks;
+	// Per play suit, remaining cards and points indexed by property number (see
+	// SingletonCardProperty), kept in Fenwick trees so that "how many above this number"
+	// doesn't need a scan.  MINOR_TRUMP_NUMBER adds up all of its suits.
+	private static final int NUM_PROPERTY_NUMBERS = SingletonCardProperty.BIG_JOKER + 1;
+	private FenwickTree[] cards_by_number;
+	private FenwickTree[] points_by_number;
+	private int[] cards_in_suit;
+	private int[] card_suit;  // play suit per card index
+	private int[] card_number;  // property number per card index
+	// Bumped by DeleteCards, under the probability_memo lock.  CurrentPropertyProbability
+	// answers are only good for one version.
+	private int version = 0;
+	private int probability_memo_version = 0;
+	private int probability_memo_belief_version = 0;
+	private final HashMap<Long, Double> probability_memo = new HashMap<Long, Double>();
+	private int probability_memo_hits = 0;
+	private int probability_memo_misses = 0;
+
+	/**
+	 * Fenwick (binary indexed) tree over positions 0..size-1.
+	 */
+	private static class FenwickTree {
+		private int[] tree;
+
+		FenwickTree(int size) {
+			tree = new int[size + 1];
+		}
+
+		FenwickTree(FenwickTree other) {
+			tree = other.tree.clone();
+		}
+
+		void Add(int position, int delta) {
+			for (int i = position + 1; i < tree.length; i += i & -i)
+				tree[i] += delta;
+		}
+
+		// Sum of positions 0..position, inclusive.
+		int PrefixSum(int position) {
+			int sum = 0;
+			for (int i = Math.min(position + 1, tree.length - 1); i > 0; i -= i & -i)
+				sum += tree[i];
+			return sum;
+		}
+
+		int Total() {
+			return PrefixSum(tree.length - 2);
+		}
+
+		/**
+		 * Lowest position whose prefix sum exceeds target, or -1 if the total
+		 * doesn't exceed target.
+		 */
+		int Search(int target) {
+			int position = 0;
+			int step = Integer.highestOneBit(tree.length - 1);
+			for (; step > 0; step >>= 1) {
+				if (position + step < tree.length && tree[position + step] <= target) {
+					position += step;
+					target -= tree[position];
+				}
+			}
+			return position < tree.length - 1 ? position : -1;
+		}
+	}
+	// TODO: we probably need a real time card property comparator here. i.e., based on
+	// remaining cards, calculate the probability of the current property, and do some ranking.
+	
+	public CardTracker(int suit, int number, int num_decks) {
+		trumpSuit = suit;
+		trumpNumber = number;
+		numDecks = num_decks;
+		num_cards = new int[Card.CARDS_PER_DECK];
+		cards_by_number = new FenwickTree[Card.SUIT_NUM_SUITS];
+		points_by_number = new FenwickTree[Card.SUIT_NUM_SUITS];
+		cards_in_suit = new int[Card.SUIT_NUM_SUITS];
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			cards_by_number[i] = new FenwickTree(NUM_PROPERTY_NUMBERS);
+			points_by_number[i] = new FenwickTree(NUM_PROPERTY_NUMBERS);
+		}
+		card_suit = new int[Card.CARDS_PER_DECK];
+		card_number = new int[Card.CARDS_PER_DECK];
+		DealOrdering ordering = DealOrdering.Get(suit, number);
+		for (int i = 0; i <  Card.CARDS_PER_DECK; ++i) {
+			Card c = Card.of(i);
+			card_suit[i] = c.CalculatePlaySuit(ordering);
+			card_number[i] = SingletonCardProperty.ConvertToPropertyNumber(c, suit, number);
+			num_cards[i] = num_decks;
+			UpdateCounts(i, num_decks);
+		}
+	}
+	
+	/**
+	 * A copy of other that goes on separately.  The probability memo starts out empty.
+	 *
+	 * @param other
+	 */
+	public CardTracker(CardTracker other) {
+		trumpSuit = other.trumpSuit;
+		trumpNumber = other.trumpNumber;
+		numDecks = other.numDecks;
+		num_cards = other.num_cards.clone();
+		cards_by_number = new FenwickTree[Card.SUIT_NUM_SUITS];
+		points_by_number = new FenwickTree[Card.SUIT_NUM_SUITS];
+		for (int i = 0; i < Card.SUIT_NUM_SUITS; ++i) {
+			cards_by_number[i] = new FenwickTree(other.cards_by_number[i]);
+			points_by_number[i] = new FenwickTree(other.points_by_number[i]);
+		}
+		cards_in_suit = other.cards_in_suit.clone();
+		// Fixed for the deal.
+		card_suit = other.card_suit;
+		card_number = other.card_number;
+		version = other.version;
+	}
+
+	public void DeleteCards(Card[] cards) {
+		for (Card c : cards) {
+			num_cards[c.GetIndex()]--;
+			UpdateCounts(c.GetIndex(), -1);
+		}
+		synchronized (probability_memo) {
+			version++;
+		}
+	}
+
+	/**
+	 * Goes up every time cards are deleted, i.e., every time the answers of this tracker
+	 * may change.
+	 */
+	public int GetVersion() {
+		synchronized (probability_memo) {
+			return version;
+		}
+	}
+
+	private void UpdateCounts(int index, int delta) {
+		int suit = card_suit[index];
+		cards_in_suit[suit] += delta;
+		cards_by_number[suit].Add(card_number[index], delta);
+		points_by_number[suit].Add(card_number[index], delta * Card.PointsBasedOnIndex(index));
+	}
+	
+	/**
+	 * Based on the existing_played_cards, return the probability of a particular property p,
+	 * i.e., high chance of winning in the same suit.  We'll factor in the number of players
+	 * some what.  The idea is to calculate for cards higher than p that's remaining, what are
+	 * the chance of something bigger property will form and beat p.
+	 * 
+	 * @param p
+	 * @param num_possible_players  Number of players that could possibly have this property.
+	 * For instance, maybe p is a pair, and we know certain players don't have pairs.
+	 * @param total_players Total number of players involved that can beat property p (usually it
+	 * would be numPlayers - 1).
+	 * @return the winning probability of p.
+	 */
+	public double CurrentPropertyProbability(SingletonCardProperty p, int total_players, boolean fixed_targeting_player) {
+		return CurrentPropertyProbability(p.ToPacked(), total_players, fixed_targeting_player, null, 0, 0);
+	}
+
+	/**
+	 * Same as above, but who holds which of the remaining cards comes from belief instead of
+	 * an even spread, so that voids and cards already played by a player count.
+	 *
+	 * @param p
+	 * @param belief
+	 * @param player_id The player that has to beat p, or CardBelief.ANY_PLAYER.
+	 * @return the winning probability of p.
+	 */
+	public double CurrentPropertyProbability(SingletonCardProperty p, CardBelief belief, int player_id) {
+		return CurrentPropertyProbability(p, belief, player_id, belief.OtherPlayers());
+	}
+
+	/**
+	 * Same as above, with the remaining cards taken to be among the players in players_mask
+	 * only.
+	 */
+	public double CurrentPropertyProbability(SingletonCardProperty p, CardBelief belief, int player_id, int players_mask) {
+		return CurrentPropertyProbability(p.ToPacked(), 0, false, belief, player_id, players_mask);
+	}
+
+	private double CurrentPropertyProbability(long packed, int total_players, boolean fixed_targeting_player,
+			CardBelief belief, int player_id, int players_mask) {
+		// Only the type of p matters for the bigger properties we try below, so work off the
+		// packed property instead of copying p for every leading number.
+		// Between two DeleteCards the answer only depends on the type, suit and leading number
+		// of p, and the same properties get asked about many times per decision.
+		// Learning candidates are scored from several threads, hence the lock.
+		Long key = belief == null ?
+				ProbabilityMemoKey(packed, total_players, fixed_targeting_player, -1) :
+				ProbabilityMemoKey(packed, player_id + 1, false, players_mask);
+		int memo_version;
+		int memo_belief_version;
+		synchronized (probability_memo) {
+			int belief_version = belief == null ? probability_memo_belief_version : belief.GetVersion();
+			if (probability_memo_version != version || probability_memo_belief_version != belief_version) {
+				probability_memo.clear();
+				probability_memo_version = version;
+				probability_memo_belief_version = belief_version;
+			}
+			memo_version = version;
+			memo_belief_version = belief_version;
+			Double memo = probability_memo.get(key);
+			if (memo != null) {
+				probability_memo_hits++;
+				return memo;
+			}
+			probability_memo_misses++;
+		}
+		double probability = ComputePropertyProbability(packed, total_players, fixed_targeting_player, belief, player_id, players_mask);
+		synchronized (probability_memo) {
+			// Cards may have gone while we were at it, then the answer may be a mix of before and
+			// after, don't keep it.
+			if (version == memo_version && probability_memo_version == memo_version &&
+					(belief == null || belief.GetVersion() == memo_belief_version) &&
+					probability_memo_belief_version == memo_belief_version)
+				probability_memo.put(key, probability);
+		}
+		return probability;
+	}
+
+	// players_mask is -1 when no belief is involved, otherwise total_players is the targeted player + 1.
+	private static long ProbabilityMemoKey(long packed, int total_players, boolean fixed_targeting_player,
+			int players_mask) {
+		long key = PackedSingletonCardProperty.Pack(
+				PackedSingletonCardProperty.NumIdenticalCards(packed),
+				PackedSingletonCardProperty.NumSequences(packed),
+				PackedSingletonCardProperty.Suit(packed),
+				PackedSingletonCardProperty.LeadingNumber(packed),
+				false, false, Card.SUIT_UNDEFINED, Card.SUIT_UNDEFINED, SingletonCardProperty.UNDEFINED, 0, 0);
+		return (key << 18) | ((players_mask & 0x1ffL) << 9) | ((total_players & 0xff) << 1) | (fixed_targeting_player ? 1 : 0);
+	}
+
+	public int GetProbabilityMemoHits() {
+		return probability_memo_hits;
+	}
+
+	public int GetProbabilityMemoMisses() {
+		return probability_memo_misses;
+	}
+
+	/**
+	 * Hit rate of the CurrentPropertyProbability memo.  A tracker lives for one deal, so
+	 * this is the hit rate of the deal so far.
+	 */
+	public double GetProbabilityMemoHitRate() {
+		int total = probability_memo_hits + probability_memo_misses;
+		if (total == 0)
+			return 0;
+		return (double) probability_memo_hits / total;
+	}
+
+	private double ComputePropertyProbability(long packed, int total_players, boolean fixed_targeting_player,
+			CardBelief belief, int player_id, int players_mask) {
+		int num_identical_cards = PackedSingletonCardProperty.NumIdenticalCards(packed);
+		int num_sequences = PackedSingletonCardProperty.NumSequences(packed);
+		double probability = 1;
+		int suit = PackedSingletonCardProperty.Suit(packed);
+		// Nothing can be led by a number that has no cards left.
+		int highest_number_for_suit = HighestRemainingNumber(suit);
+		int lowest_number_for_suit = PackedSingletonCardProperty.LeadingNumber(packed);
+		if (suit == Card.SUIT_NO_TRUMP)
+			lowest_number_for_suit = Math.max(lowest_number_for_suit, SingletonCardProperty.MAJOR_TRUMP_NUMBER);
+		Vector<Integer> pp_num_cards = new Vector<Integer>(num_sequences);
+		int[] pp_indices = new int[num_sequences];
+		for (int i = highest_number_for_suit; i > lowest_number_for_suit; i = GetNextLowerNumber(i, trumpNumber)) {
+			// The property of p's type led by i should always be valid, for NO_TRUMP it's tricky,
+			// but since p is valid to start with, so must it.
+			int ending_number = i - num_sequences + 1;
+			// Normally we should check for ending_number > 1, but it's gonna be bigger than p.leading_number
+			// so we are fine here.
+			if (i > trumpNumber && ending_number <= trumpNumber)
+				ending_number--;
+			pp_num_cards.clear();
+			if (i < SingletonCardProperty.MINOR_TRUMP_NUMBER ||
+					ending_number > SingletonCardProperty.MINOR_TRUMP_NUMBER) {
+				// Simple case.
+				int number = i;
+				for (int j = 0; j < num_sequences; ++j) {
+					pp_indices[j] = SingletonCardProperty.ConvertToCardIndex(number, suit, trumpNumber);
+					pp_num_cards.add(num_cards[pp_indices[j]]);
+					number = GetNextLowerNumber(number, trumpNumber);
+				}
+				probability *= (1 - BiggerPropertyProbability(pp_num_cards, pp_indices, total_players,
+						fixed_targeting_player, belief, player_id, players_mask, num_identical_cards, num_sequences));
+				if (probability == 0.0) return 0;
+			} else {
+				// We have to involve MINOR_TRUMP_NUMBER
+				for (int k = 0; k < 4; ++k) {
+					pp_num_cards.clear();
+					if (k == suit)
+						continue;
+					int number = i;
+					int local_suit = suit;
+					for (int j = 0; j < num_sequences; ++j) {
+						if (number == SingletonCardProperty.MINOR_TRUMP_NUMBER)
+							local_suit = k;
+						else
+							local_suit = suit;
+						pp_indices[j] = SingletonCardProperty.ConvertToCardIndex(number, local_suit, trumpNumber);
+						pp_num_cards.add(num_cards[pp_indices[j]]);
+						number = GetNextLowerNumber(number, trumpNumber);
+					}
+					probability *= (1 - BiggerPropertyProbability(pp_num_cards, pp_indices, total_players,
+							fixed_targeting_player, belief, player_id, players_mask, num_identical_cards, num_sequences));
+					if (probability == 0.0) return 0;
+				}
+			}
+		}
+		return probability;
+	}
+
+	/**
+	 * Probability that somebody holds the property made of pp_indices, evenly spread among
+	 * total_players without a belief.
+	 */
+	private static double BiggerPropertyProbability(Vector<Integer> pp_num_cards, int[] pp_indices, int total_players,
+			boolean fixed_targeting_player, CardBelief belief, int player_id, int players_mask, int num_identical_cards, int num_sequences) {
+		if (belief == null)
+			return SingletonCardPropertyProbability.ProbabilityApproximate(total_players, pp_num_cards,
+					fixed_targeting_player, num_identical_cards, num_sequences);
+		return SingletonCardPropertyProbability.ProbabilityWithOdds(
+				belief.AllCopiesProbability(player_id, players_mask, pp_indices, num_identical_cards),
+				pp_num_cards, num_identical_cards, num_sequences);
+	}
+	
+	//public int LargestPointCardsRemaining
+	
+	/**
+	 * Return all points remaining still in the suit, a minimum leading_number is provided
+	 * @param suit
+	 * @param leading_number
+	 * @return
+	 */
+	public int TotalPointsRemainingInSuit(int suit, int leading_number) {
+		return points_by_number[suit].Total() - points_by_number[suit].PrefixSum(leading_number);
+	}
+
+	/**
+	 * Number of cards remaining in the suit with property number above number.
+	 * 
+	 * @param suit
+	 * @param number
+	 * @return
+	 */
+	public int RemainingCardsAboveNumber(int suit, int number) {
+		return cards_in_suit[suit] - cards_by_number[suit].PrefixSum(number);
+	}
+
+	/**
+	 * @param suit
+	 * @return highest property number that still has cards remaining in suit, UNDEFINED
+	 * if the suit is gone.
+	 */
+	public int HighestRemainingNumber(int suit) {
+		if (cards_in_suit[suit] == 0)
+			return SingletonCardProperty.UNDEFINED;
+		return cards_by_number[suit].Search(cards_in_suit[suit] - 1);
+	}
+
+	/**
+	 * @param suit
+	 * @return lowest property number that still has cards remaining in suit, UNDEFINED
+	 * if the suit is gone.
+	 */
+	public int LowestRemainingNumber(int suit) {
+		if (cards_in_suit[suit] == 0)
+			return SingletonCardProperty.UNDEFINED;
+		return cards_by_number[suit].Search(0);
+	}
+	
+	public int TotalCardsInSuit(int suit) {
+		if (suit != trumpSuit && trumpSuit != Card.SUIT_NO_TRUMP)
+			return (Card.CARDS_PER_SUIT - 1) * numDecks;
+		if (suit != trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
+			return Card.CARDS_PER_SUIT * numDecks;
+		if (suit == trumpSuit && trumpSuit != Card.SUIT_NO_TRUMP)
+			return (Card.CARDS_PER_SUIT + 5) * numDecks;
+		if (suit == trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
+			return 6 * numDecks;
+		return 0;
+	}
+	
+	public int RemainingCardsInSuit(int suit) {
+		return cards_in_suit[suit];
+	}
+	
+	public int GetLowestNumberForSuit(int suit) {
+		int lowest_number_in_suit = SingletonCardProperty.TWO;
+		if (trumpNumber == SingletonCardProperty.TWO)
+			lowest_number_in_suit = SingletonCardProperty.THREE;
+		if (suit == Card.SUIT_NO_TRUMP)
+			lowest_number_in_suit = SingletonCardProperty.UNDEFINED;
+		if (suit == trumpSuit && trumpSuit == Card.SUIT_NO_TRUMP)
+			lowest_number_in_suit = SingletonCardProperty.MINOR_TRUMP_NUMBER;
+		return lowest_number_in_suit;
+	}
+	
+	public static int GetNextLowerNumber(int number, int trump_number) {
+		number--;
+		if (number == trump_number)
+			number--;
+		return number;  // number could become UNDEFINED
+	}
+}
@@ -0,0 +1,87 @@
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Card order and play suit for one deal, i.e., for a fixed trump suit and trump
+ * number.  Everything is worked out once up front, so comparing two cards or finding
+ * the play suit of a card is just an array lookup.
+ *
+ * Instances never change after construction, and are shared through Get(...).
+ */
+public class DealOrdering {
+	public final int trump_suit;
+	public final int trump_number;
+	// rank[index] is the position of the card in PerDealCardComparator order, 0 being the
+	// biggest card.
+	private final int[] rank;
+	// play_suit[index] is what Card.CalculatePlaySuit(trump_suit, trump_number) would return.
+	private final int[] play_suit;
+
+	private static final int MAX_TRUMP_NUMBER = Card.NUMBER_NO_GUARANTEE + 1;
+	// Row 0 is SUIT_UNDEFINED, i.e., before trump is declared; row suit + 1 is suit.
+	private static final DealOrdering[][] orderings =
+		new DealOrdering[Card.SUIT_NUM_SUITS + 1][MAX_TRUMP_NUMBER];
+
+	/**
+	 * Returns the shared ordering for trump_suit and trump_number, including
+	 * SUIT_UNDEFINED.  Anything else out of range still works, it just isn't cached.
+	 *
+	 * @param trump_suit
+	 * @param trump_number
+	 * @return
+	 */
+	public static DealOrdering Get(int trump_suit, int trump_number) {
+		if (trump_suit < Card.SUIT_UNDEFINED || trump_suit >= Card.SUIT_NUM_SUITS ||
+			trump_number < 0 || trump_number >= MAX_TRUMP_NUMBER)
+			return new DealOrdering(trump_suit, trump_number);
+		// Racing threads may both build one, which is harmless since all fields are final.
+		DealOrdering ordering = orderings[trump_suit + 1][trump_number];
+		if (ordering == null) {
+			ordering = new DealOrdering(trump_suit, trump_number);
+			orderings[trump_suit + 1][trump_number] = ordering;
+		}
+		return ordering;
+	}
+
+	private DealOrdering(int suit, int number) {
+		trump_suit = suit;
+		trump_number = number;
+		Card[] deck = new Card[Card.CARDS_PER_DECK];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i)
+			deck[i] = Card.of(i);
+		final int s = suit;
+		final int n = number;
+		Arrays.sort(deck, new Comparator<Card>() {
+			public int compare(Card first_card, Card second_card) {
+				return PerDealCardComparator.CompareByRule(first_card, second_card, s, n);
+			}
+		});
+		rank = new int[Card.CARDS_PER_DECK];
+		play_suit = new int[Card.CARDS_PER_DECK];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i) {
+			rank[deck[i].GetIndex()] = i;
+			play_suit[deck[i].GetIndex()] = deck[i].CalculatePlaySuit(suit, number);
+		}
+	}
+
+	public static boolean IsValidIndex(int index) {
+		return index >= 0 && index < Card.CARDS_PER_DECK;
+	}
+
+	public int Rank(int index) {
+		return rank[index];
+	}
+
+	public int PlaySuit(int index) {
+		return play_suit[index];
+	}
+
+	/**
+	 * Same as PerDealCardComparator.compare, for cards with valid indices.
+	 */
+	public int Compare(int first_index, int second_index) {
+		return rank[first_index] - rank[second_index];
+	}
+}
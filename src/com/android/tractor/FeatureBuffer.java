@@ -0,0 +1,84 @@
+package com.android.tractor;
+
+import java.util.Vector;
+
+/**
+ * A growable list of int features, for the afterstates handed to AILearner.  Unlike a
+ * Vector<Integer> nothing gets boxed, and the same buffer can be cleared and filled again for
+ * every candidate.  Learners copy whatever they keep, so the caller is free to reuse it right
+ * after the call.
+ *
+ * @author anzhu
+ */
+public class FeatureBuffer {
+	int[] values;
+	int size = 0;
+
+	public FeatureBuffer() {
+		this(16);
+	}
+
+	public FeatureBuffer(int capacity) {
+		values = new int[Math.max(capacity, 1)];
+	}
+
+	public static FeatureBuffer FromVector(Vector<Integer> features) {
+		if (features == null)
+			return null;
+		FeatureBuffer buffer = new FeatureBuffer(features.size());
+		for (Integer f : features)
+			buffer.Add(f);
+		return buffer;
+	}
+
+	public void Add(int value) {
+		if (size == values.length) {
+			int[] grown = new int[values.length * 2];
+			System.arraycopy(values, 0, grown, 0, size);
+			values = grown;
+		}
+		values[size++] = value;
+	}
+
+	public int Get(int i) {
+		if (i >= size)
+			throw new ArrayIndexOutOfBoundsException(i);
+		return values[i];
+	}
+
+	public int Size() {
+		return size;
+	}
+
+	public void Clear() {
+		size = 0;
+	}
+
+	public int[] ToArray() {
+		int[] copy = new int[size];
+		System.arraycopy(values, 0, copy, 0, size);
+		return copy;
+	}
+
+	public Vector<Integer> ToVector() {
+		Vector<Integer> features = new Vector<Integer>(size);
+		for (int i = 0; i < size; ++i)
+			features.add(values[i]);
+		return features;
+	}
+
+	/**
+	 * Same format as Vector.toString(), e.g., "[1, 0, 3]".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(size * 3 + 2);
+		builder.append('[');
+		for (int i = 0; i < size; ++i) {
+			if (i > 0)
+				builder.append(", ");
+			builder.append(values[i]);
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,83 @@
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+/**
+ * What all the FollowCardSet variants of one follow decision have in common: the sorted hand,
+ * its split by the lead suit, the trumps, the lead properties and the forced properties.
+ * AIDealAnalyzer.CompleteFollowCardSet is called up to 16 times per decision, and the
+ * variants only differ in the points and magnitude they pick, so these are worked out once
+ * here.  The parts only some variants need are worked out the first time they're asked for.
+ *
+ * The arrays and vectors handed out are shared, callers clone them before changing them.
+ *
+ * @author anzhu
+ */
+public class FollowContext {
+	public final Card[] lead_play;
+	public final Card[] current_hand;  // sorted by the analyzer's card_comparator
+	public final SingletonCardProperty winning_property;
+	public final int suit;  // play suit of lead_play
+	public final Card[] same_suit_cards;
+
+	private final AIDealAnalyzer analyzer;
+	private Card[] other_cards = null;
+	private Card[] trump_cards = null;
+	private Vector<SingletonCardProperty> rest_lead_properties = null;
+	private Vector<SingletonCardProperty> forced_properties = null;
+
+	/**
+	 * Note that current_hand gets sorted, same as CompleteFollowCardSet always did.
+	 */
+	public FollowContext(AIDealAnalyzer analyzer, Card[] lead_play, Card[] current_hand,
+			SingletonCardProperty winning_property) {
+		this.analyzer = analyzer;
+		this.lead_play = lead_play;
+		this.current_hand = current_hand;
+		this.winning_property = winning_property;
+		suit = lead_play[0].CalculatePlaySuit(analyzer.trumpSuit, analyzer.trumpNumber);
+		Arrays.sort(current_hand, analyzer.card_comparator);
+		same_suit_cards = CardOrganizer.GetSameSuitCards(suit, current_hand, analyzer.trumpSuit, analyzer.trumpNumber);
+	}
+
+	/**
+	 * current_hand without same_suit_cards.
+	 */
+	public Card[] GetOtherCards() {
+		if (other_cards == null)
+			other_cards = Card.DeleteCards(current_hand, same_suit_cards);
+		return other_cards;
+	}
+
+	public Card[] GetTrumpCards() {
+		if (trump_cards == null)
+			trump_cards = CardOrganizer.GetSameSuitCards(analyzer.trumpSuit, current_hand,
+					analyzer.trumpSuit, analyzer.trumpNumber);
+		return trump_cards;
+	}
+
+	/**
+	 * The lead properties, most important first, without the first one, which is the one to
+	 * beat.
+	 */
+	public Vector<SingletonCardProperty> GetRestLeadProperties() {
+		if (rest_lead_properties == null) {
+			CardProperty lead_property = CardPropertyCache.Get(lead_play, analyzer.trumpSuit, analyzer.trumpNumber);
+			rest_lead_properties = lead_property.SortedProperties(analyzer.de_de_comparator);
+			rest_lead_properties.remove(0);
+		}
+		return rest_lead_properties;
+	}
+
+	/**
+	 * The properties same_suit_cards has to follow, see CardAnalyzer.FindAllForcedProperties.
+	 */
+	public Vector<SingletonCardProperty> GetForcedProperties() {
+		if (forced_properties == null) {
+			CardProperty lead_property = CardPropertyCache.Get(lead_play, analyzer.trumpSuit, analyzer.trumpNumber);
+			forced_properties = analyzer.FindAllForcedProperties(lead_property.properties, same_suit_cards, null);
+		}
+		return forced_properties;
+	}
+}
@@ -0,0 +1,245 @@
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Vector;
+
+/**
+ * Goes through every distinct legal play out of a hand, one at a time, see
+ * CardAnalyzer.IterateLegalLeadingPlays and CardAnalyzer.IterateLegalFollowPlays.
+ *
+ * Identical cards are one slot with a count, and a play is how many cards it takes from each
+ * slot, so the same play never comes up twice.  The counts are stepped through in place,
+ * largest first from the first slot: with the slots sorted by a card comparator, plays made
+ * of the cards that come first in that order come out first.  Nothing is computed ahead, so
+ * stopping early costs nothing.
+ *
+ * next() returns a new array every time, NextShared() reuses one array per play length.
+ *
+ * @author anzhu
+ */
+public class LegalPlayIterator implements Iterator<Card[]> {
+	private final CardAnalyzer analyzer;
+	private final Card[] fixed_cards;  // in every play, e.g., the last cards of the lead suit.
+	private final Card[] slot_card;
+	private final int[] slot_count;
+	private final int[] take;
+	// Each phase picks phase_size cards out of slots [phase_start, phase_end).
+	private final int[] phase_start;
+	private final int[] phase_end;
+	private final int[] phase_size;
+	private int phase = -1;
+	// Properties a play must cover, null if any play from the slots will do.
+	private final Vector<SingletonCardProperty> forced_properties;
+
+	private Card[] play = new Card[0];
+	private boolean has_next = false;
+	private boolean looked_ahead = false;
+
+	/**
+	 * Plays out of current_hand when leading: any number of cards of one play suit.  Whether
+	 * a throw actually holds up depends on the other hands, see
+	 * CardAnalyzer.FindLegalLeadingCards.
+	 */
+	LegalPlayIterator(CardAnalyzer analyzer, Card[] current_hand, Comparator<? super Card> order,
+			int trump_suit, int trump_number) {
+		this.analyzer = analyzer;
+		fixed_cards = new Card[0];
+		forced_properties = null;
+		Card[] cards = SortSlots(current_hand, order);
+		// Keep each play suit together, suits in the order their first card comes.
+		Vector<Card> slots = new Vector<Card>();
+		Vector<Integer> suit_starts = new Vector<Integer>();
+		boolean[] done = new boolean[Card.SUIT_NUM_SUITS];
+		for (Card c : cards) {
+			int suit = c.CalculatePlaySuit(trump_suit, trump_number);
+			if (done[suit])
+				continue;
+			done[suit] = true;
+			suit_starts.add(slots.size());
+			for (Card d : cards)
+				if (d.CalculatePlaySuit(trump_suit, trump_number) == suit)
+					slots.add(d);
+		}
+		suit_starts.add(slots.size());
+		slot_card = slots.toArray(new Card[0]);
+		slot_count = CountSlots(slot_card, current_hand);
+		take = new int[slot_card.length];
+		int num_phases = 0;
+		for (int s = 0; s + 1 < suit_starts.size(); ++s)
+			num_phases += TotalCount(suit_starts.get(s), suit_starts.get(s + 1));
+		phase_start = new int[num_phases];
+		phase_end = new int[num_phases];
+		phase_size = new int[num_phases];
+		int p = 0;
+		for (int s = 0; s + 1 < suit_starts.size(); ++s) {
+			int total = TotalCount(suit_starts.get(s), suit_starts.get(s + 1));
+			for (int k = 1; k <= total; ++k, ++p) {
+				phase_start[p] = suit_starts.get(s);
+				phase_end[p] = suit_starts.get(s + 1);
+				phase_size[p] = k;
+			}
+		}
+	}
+
+	/**
+	 * Plays out of current_hand that follow lead_play, same rules as
+	 * CardAnalyzer.IsFollowPlayFollowProperty.
+	 */
+	LegalPlayIterator(CardAnalyzer analyzer, Card[] lead_play, Card[] current_hand, Comparator<? super Card> order,
+			int trump_suit, int trump_number) {
+		this.analyzer = analyzer;
+		int suit = lead_play[0].CalculatePlaySuit(trump_suit, trump_number);
+		Card[] same_suit_cards = CardOrganizer.GetSameSuitCards(suit, current_hand, trump_suit, trump_number);
+		Card[] from;
+		if (same_suit_cards.length > lead_play.length) {
+			// All from the suit, covering what the lead forces.
+			fixed_cards = new Card[0];
+			from = same_suit_cards;
+			CardProperty lead_property = CardPropertyCache.Get(lead_play, trump_suit, trump_number);
+			Vector<SingletonCardProperty> forced = analyzer.FindAllForcedProperties(
+					lead_property.properties, same_suit_cards, null);
+			forced_properties = forced.size() > 0 ? forced : null;
+		} else {
+			// All of the suit, and anything else for the rest.
+			fixed_cards = same_suit_cards.clone();
+			from = Card.DeleteCards(SortedByIndex(current_hand), SortedByIndex(same_suit_cards));
+			forced_properties = null;
+		}
+		slot_card = SortSlots(from, order);
+		slot_count = CountSlots(slot_card, from);
+		take = new int[slot_card.length];
+		phase_start = new int[] {0};
+		phase_end = new int[] {slot_card.length};
+		phase_size = new int[] {lead_play.length - fixed_cards.length};
+	}
+
+	public boolean hasNext() {
+		if (!looked_ahead) {
+			has_next = Advance();
+			looked_ahead = true;
+		}
+		return has_next;
+	}
+
+	public Card[] next() {
+		return NextShared().clone();
+	}
+
+	/**
+	 * Same as next(), but the array is reused by later calls, so the caller must copy it to
+	 * keep it.
+	 */
+	public Card[] NextShared() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		looked_ahead = false;
+		return play;
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	// Steps to the next legal play, and puts it in play.
+	private boolean Advance() {
+		boolean found = phase >= 0 && phase < phase_size.length && StepPhase();
+		while (true) {
+			while (!found) {
+				if (++phase >= phase_size.length)
+					return false;
+				found = StartPhase();
+			}
+			FillPlay();
+			if (forced_properties == null || analyzer.CanCoverProperties(forced_properties, play))
+				return true;
+			found = StepPhase();
+		}
+	}
+
+	// Most cards from the first slots.  False if there aren't enough cards.
+	private boolean StartPhase() {
+		Arrays.fill(take, 0);
+		return Fill(phase_start[phase], phase_size[phase]);
+	}
+
+	// The next set of counts: moves one card from the last slot that can give one to the slots
+	// after it, which are then filled up from the front again.
+	private boolean StepPhase() {
+		int after = 0;  // cards taken from the slots after i
+		int room = 0;  // cards in the slots after i
+		for (int i = phase_end[phase] - 1; i >= phase_start[phase]; --i) {
+			if (take[i] > 0 && room > after) {
+				take[i]--;
+				for (int j = i + 1; j < phase_end[phase]; ++j)
+					take[j] = 0;
+				return Fill(i + 1, after + 1);
+			}
+			after += take[i];
+			room += slot_count[i];
+		}
+		return false;
+	}
+
+	private boolean Fill(int from_slot, int num_cards) {
+		for (int i = from_slot; i < phase_end[phase] && num_cards > 0; ++i) {
+			take[i] = Math.min(slot_count[i], num_cards);
+			num_cards -= take[i];
+		}
+		return num_cards == 0;
+	}
+
+	private void FillPlay() {
+		int length = fixed_cards.length + phase_size[phase];
+		if (play.length != length)
+			play = new Card[length];
+		System.arraycopy(fixed_cards, 0, play, 0, fixed_cards.length);
+		int n = fixed_cards.length;
+		for (int i = phase_start[phase]; i < phase_end[phase]; ++i)
+			for (int k = 0; k < take[i]; ++k)
+				play[n++] = slot_card[i];
+	}
+
+	private int TotalCount(int start, int end) {
+		int total = 0;
+		for (int i = start; i < end; ++i)
+			total += slot_count[i];
+		return total;
+	}
+
+	// One card per distinct index, sorted by order (by the card's natural order if null).
+	private static Card[] SortSlots(Card[] cards, Comparator<? super Card> order) {
+		boolean[] seen = new boolean[Card.CARDS_PER_DECK];
+		Vector<Card> slots = new Vector<Card>();
+		for (Card c : cards) {
+			if (seen[c.GetIndex()])
+				continue;
+			seen[c.GetIndex()] = true;
+			slots.add(Card.of(c.GetIndex()));
+		}
+		Card[] sorted = slots.toArray(new Card[0]);
+		if (order != null)
+			Arrays.sort(sorted, order);
+		else
+			Arrays.sort(sorted);
+		return sorted;
+	}
+
+	private static int[] CountSlots(Card[] slots, Card[] cards) {
+		int[] num_cards = new int[Card.CARDS_PER_DECK];
+		for (Card c : cards)
+			num_cards[c.GetIndex()]++;
+		int[] counts = new int[slots.length];
+		for (int i = 0; i < slots.length; ++i)
+			counts[i] = num_cards[slots[i].GetIndex()];
+		return counts;
+	}
+
+	private static Card[] SortedByIndex(Card[] cards) {
+		Card[] sorted = cards.clone();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+}
@@ -0,0 +1,432 @@
+package com.android.tractor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Determinized Monte Carlo search, for AIDealAnalyzer.AI_MODE_MONTE_CARLO.
+ *
+ * Each rollout deals the cards we haven't seen to the other players, consistent with the
+ * counts in the analyzer's CardTracker and the voids known in per_player_cards, and then plays
+ * the rest of the deal once per candidate, everybody using the rule based AI.  The candidate
+ * with the best average point difference for our team wins.  All candidates are played on the
+ * same deals, so that the comparison between them isn't drowned in the luck of the deal.
+ *
+ * Rollouts are spread over the AIExecutor pool, one task per rollout, a batch of one per pool
+ * thread at a time until enough are done or the deadline is up.  Every rollout finished by the
+ * deadline decides.  If none is, the candidates the furthest rollout got through are compared on
+ * that one deal, so that a tight deadline still gets some search.
+ *
+ * @author anzhu
+ */
+public class MonteCarloSearch {
+	private final int trump_suit;
+	private final int trump_number;
+	private final int num_players;
+	private final int num_decks;
+	private final int my_id;
+	private final Vector<Integer> dealer_group;
+	private final Card[] my_hand;
+	private final Card[] played_cards;  // gone for good, everybody knows about them.
+	private final Vector<Card> unknown_cards;
+	private final boolean[][] is_void;
+	private final int[] hand_sizes;
+	private final long seed;
+	private volatile long deadline_nanos = AIDealAnalyzer.NO_DEADLINE;
+
+	// Thrown inside a rollout that runs past the deadline.
+	private static class OutOfTimeException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	// The round in progress, if we are following.  lead_play is null if we are leading.
+	private Card[] lead_play = null;
+	private int leader_id;
+	private int winning_id;
+	private SingletonCardProperty winning_property;
+	private int table_points;
+
+	/**
+	 * Takes a snapshot of what analyzer knows, so that the search doesn't touch analyzer
+	 * once the rollouts start.
+	 *
+	 * @param analyzer
+	 * @param player_id the player we are searching for, i.e., analyzer's own player.
+	 * @param current_hand
+	 * @param dealer_group
+	 * @param seed
+	 */
+	public MonteCarloSearch(AIDealAnalyzer analyzer, int player_id, Card[] current_hand,
+			Vector<Integer> dealer_group, long seed) {
+		trump_suit = analyzer.trumpSuit;
+		trump_number = analyzer.trumpNumber;
+		num_players = analyzer.numPlayers;
+		num_decks = analyzer.numDecks;
+		my_id = player_id;
+		this.dealer_group = dealer_group;
+		this.seed = seed;
+		my_hand = current_hand.clone();
+		int[] mine = new int[Card.CARDS_PER_DECK];
+		for (Card c : my_hand)
+			mine[c.GetIndex()]++;
+		unknown_cards = new Vector<Card>();
+		Vector<Card> played = new Vector<Card>();
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i) {
+			int unknown = analyzer.unknown_cards_pool.num_cards[i];
+			for (int j = 0; j < unknown; ++j)
+				unknown_cards.add(Card.of(i));
+			for (int j = unknown + mine[i]; j < num_decks; ++j)
+				played.add(Card.of(i));
+		}
+		played_cards = played.toArray(new Card[0]);
+		is_void = new boolean[num_players][Card.SUIT_NUM_SUITS];
+		for (int p = 0; p < num_players; ++p)
+			for (int suit = 0; suit < Card.SUIT_NUM_SUITS; ++suit)
+				is_void[p][suit] = p != my_id &&
+					analyzer.per_player_cards[p].SuitInfo(suit) == CardOrganizer.VOID;
+		hand_sizes = new int[num_players];
+		for (int p = 0; p < num_players; ++p)
+			hand_sizes[p] = my_hand.length;
+	}
+
+	/**
+	 * We are following in a round that's already going on.
+	 *
+	 * @param lead_play
+	 * @param leader_id
+	 * @param played_players number of players that played before us in this round.
+	 * @param winning_id
+	 * @param winning_property
+	 * @param table_points points played so far in this round.
+	 */
+	public void SetCurrentRound(Card[] lead_play, int leader_id, int played_players, int winning_id,
+			SingletonCardProperty winning_property, int table_points) {
+		this.lead_play = lead_play.clone();
+		this.leader_id = leader_id;
+		this.winning_id = winning_id;
+		this.winning_property = winning_property;
+		this.table_points = table_points;
+		for (int i = 0; i < played_players; ++i)
+			hand_sizes[(leader_id + i) % num_players] = my_hand.length - lead_play.length;
+	}
+
+	/**
+	 * Runs num_rollouts rollouts of every candidate.  Each rollout plays the candidates in
+	 * order, so the one to fall back on should go first.
+	 *
+	 * @param candidates
+	 * @param num_rollouts
+	 * @return the candidate with the best average, null if no rollout got through two candidates.
+	 */
+	public Card[] Pick(final Vector<Card[]> candidates, int num_rollouts) {
+		return Pick(candidates, num_rollouts, AIDealAnalyzer.NO_DEADLINE);
+	}
+
+	/**
+	 * Same as Pick(candidates, num_rollouts), but stops at deadline_nanos (in System.nanoTime()
+	 * terms).
+	 */
+	public Card[] Pick(Vector<Card[]> candidates, int num_rollouts, long deadline_nanos) {
+		this.deadline_nanos = deadline_nanos;
+		double[] total = new double[candidates.size()];
+		int finished = 0;
+		// The rollout that got furthest, in case none finishes.
+		double[] partial = null;
+		int partial_played = 0;
+		// Only one batch is out at a time, so that we stop soon after the deadline however many
+		// rollouts are asked for, and other users of the pool don't queue up behind us.
+		int submitted = 0;
+		while (submitted < num_rollouts && !PastDeadline()) {
+			Vector<RollOutTask> tasks = new Vector<RollOutTask>();
+			for (int i = 0; i < AIExecutor.NumThreads() && submitted < num_rollouts; ++i, ++submitted) {
+				RollOutTask task = new RollOutTask(candidates, new Random(seed + submitted));
+				task.future = AIExecutor.Get().submit(task);
+				tasks.add(task);
+			}
+			for (RollOutTask task : tasks) {
+				try {
+					double[] scores = Result(task);
+					if (scores == null)
+						continue;
+					int played = NumPlayed(scores);
+					if (played == total.length) {
+						for (int i = 0; i < total.length; ++i)
+							total[i] += scores[i];
+						finished++;
+					} else if (played > partial_played) {
+						partial = scores;
+						partial_played = played;
+					}
+				} catch (Exception e) {
+					Util.w("MonteCarloSearch", "Rollout failed: " + e);
+				}
+			}
+		}
+		if (finished == 0) {
+			if (partial_played < 2)
+				return null;
+			total = partial;
+		}
+		int num_scored = finished > 0 ? total.length : partial_played;
+		int best = 0;
+		for (int i = 1; i < num_scored; ++i)
+			if (total[i] > total[best])
+				best = i;
+		return candidates.get(best);
+	}
+
+	private class RollOutTask implements Callable<double[]> {
+		private final Vector<Card[]> candidates;
+		private final Random rng;
+		private volatile boolean started = false;
+		Future<double[]> future;
+
+		RollOutTask(Vector<Card[]> candidates, Random rng) {
+			this.candidates = candidates;
+			this.rng = rng;
+		}
+
+		public double[] call() {
+			started = true;
+			return RollOut(candidates, rng);
+		}
+	}
+
+	private double[] Result(RollOutTask task) throws Exception {
+		if (deadline_nanos != AIDealAnalyzer.NO_DEADLINE) {
+			try {
+				return task.future.get(Math.max(deadline_nanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException e) {
+				// Not started yet: drop it.  Running: it stops within a trick, with what it has.
+				if (!task.started && task.future.cancel(false))
+					return null;
+			}
+		}
+		return task.future.get();
+	}
+
+	// Candidates a rollout got through, see RollOut.
+	private static int NumPlayed(double[] scores) {
+		int played = 0;
+		while (played < scores.length && !Double.isNaN(scores[played]))
+			played++;
+		return played;
+	}
+
+	/**
+	 * Deals one set of hidden hands, and plays every candidate on it.
+	 *
+	 * @return points our team makes minus points the other team makes, per candidate, null if
+	 * the deal went wrong.  Candidates not played by the deadline are NaN.
+	 */
+	private double[] RollOut(Vector<Card[]> candidates, Random rng) {
+		if (PastDeadline())
+			return null;
+		Vector<Vector<Card>> hands = SampleHands(rng);
+		// What everybody knows at the start is the same for every candidate, so set it up once
+		// and hand each candidate copies.
+		AIDealAnalyzer[] players = new AIDealAnalyzer[num_players];
+		for (int p = 0; p < num_players; ++p) {
+			players[p] = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, p);
+			players[p].learner = null;
+			players[p].AddCardsToMyHand(Card.VectorToArray(hands.get(p)));
+			players[p].unknown_cards_pool.DeleteCards(played_cards);
+			players[p].GetBelief().RemoveKnownCards(played_cards);
+		}
+		double[] scores = new double[candidates.size()];
+		Arrays.fill(scores, Double.NaN);
+		try {
+			for (int i = 0; i < scores.length; ++i)
+				scores[i] = PlayOut(hands, players, candidates.get(i));
+		} catch (OutOfTimeException e) {
+			return scores;
+		} catch (RuntimeException e) {
+			Util.w("MonteCarloSearch", "Rollout abandoned: " + e);
+			return null;
+		}
+		return scores;
+	}
+
+	/**
+	 * Gives every other player as many unknown cards as they should hold.  Cards of suits few
+	 * players can hold go first, so that voids are honored as much as possible, what's left
+	 * over after everybody's hand is full are the tractor cards.
+	 */
+	Vector<Vector<Card>> SampleHands(Random rng) {
+		final int[] holders = new int[Card.SUIT_NUM_SUITS];
+		for (int suit = 0; suit < Card.SUIT_NUM_SUITS; ++suit)
+			for (int p = 0; p < num_players; ++p)
+				if (p != my_id && !is_void[p][suit])
+					holders[suit]++;
+		final DealOrdering ordering = DealOrdering.Get(trump_suit, trump_number);
+		Vector<Card> pool = new Vector<Card>(unknown_cards);
+		Collections.shuffle(pool, rng);
+		// Stable, so the shuffle stays within each suit.
+		Collections.sort(pool, new Comparator<Card>() {
+			public int compare(Card first, Card second) {
+				return holders[ordering.PlaySuit(first.GetIndex())] - holders[ordering.PlaySuit(second.GetIndex())];
+			}
+		});
+		Vector<Vector<Card>> hands = new Vector<Vector<Card>>();
+		int[] room = new int[num_players];
+		for (int p = 0; p < num_players; ++p) {
+			hands.add(new Vector<Card>());
+			room[p] = p == my_id ? 0 : hand_sizes[p];
+		}
+		for (Card c : my_hand)
+			hands.get(my_id).add(c);
+		Vector<Card> left_over = new Vector<Card>();
+		for (Card c : pool) {
+			int suit = ordering.PlaySuit(c.GetIndex());
+			int total_room = 0;
+			for (int p = 0; p < num_players; ++p)
+				if (!is_void[p][suit])
+					total_room += room[p];
+			if (total_room == 0) {
+				left_over.add(c);
+				continue;
+			}
+			// Pick a player with room, in proportion to the room left.
+			int pick = rng.nextInt(total_room);
+			for (int p = 0; p < num_players; ++p) {
+				if (is_void[p][suit])
+					continue;
+				if (pick < room[p]) {
+					hands.get(p).add(c);
+					room[p]--;
+					break;
+				}
+				pick -= room[p];
+			}
+		}
+		// Voids we couldn't honor, somebody has to hold the cards.
+		for (int p = 0; p < num_players; ++p)
+			while (room[p] > 0 && left_over.size() > 0) {
+				hands.get(p).add(left_over.remove(left_over.size() - 1));
+				room[p]--;
+			}
+		return hands;
+	}
+
+	/**
+	 * Plays out the rest of the deal from hands, with us playing candidate next.  Works on
+	 * copies of initial_hands and initial_players.
+	 */
+	private double PlayOut(Vector<Vector<Card>> initial_hands, AIDealAnalyzer[] initial_players, Card[] candidate) {
+		Vector<Vector<Card>> hands = new Vector<Vector<Card>>();
+		AIDealAnalyzer[] players = new AIDealAnalyzer[num_players];
+		for (int p = 0; p < num_players; ++p) {
+			hands.add(new Vector<Card>(initial_hands.get(p)));
+			players[p] = new AIDealAnalyzer(initial_players[p]);
+		}
+		double score = 0;
+		// The current round.
+		Card[] lead;
+		int leader;
+		int winner;
+		SingletonCardProperty winning;
+		int points;
+		int next;
+		if (lead_play == null) {
+			lead = Play(players, hands, my_id, LegalLead(players[my_id], hands, my_id, candidate), null);
+			leader = my_id;
+			winner = my_id;
+			winning = players[my_id].GetWinningPropertyForPlay(lead.clone());
+			points = Points(lead);
+		} else {
+			lead = lead_play;
+			leader = leader_id;
+			winner = winning_id;
+			winning = winning_property;
+			points = table_points + Points(candidate);
+			Play(players, hands, my_id, candidate, lead);
+			SingletonCardProperty p = players[my_id].IsWinningPlay(lead.clone(), candidate.clone(), winning);
+			if (p != null) {
+				winner = my_id;
+				winning = p;
+			}
+		}
+		next = (my_id + 1) % num_players;
+		while (true) {
+			if (PastDeadline())
+				throw new OutOfTimeException();
+			// Everybody else follows.
+			for (; next != leader; next = (next + 1) % num_players) {
+				int players_left = (leader - next + num_players) % num_players;
+				Card[] follow = players[next].SuggestCardsToFollowRuleBased(next, lead,
+						Card.VectorToArray(hands.get(next)), winning, SameTeam(next, winner),
+						players_left, dealer_group);
+				Play(players, hands, next, follow, lead);
+				points += Points(follow);
+				SingletonCardProperty p = players[next].IsWinningPlay(lead.clone(), follow.clone(), winning);
+				if (p != null) {
+					winner = next;
+					winning = p;
+				}
+			}
+			score += SameTeam(my_id, winner) ? points : -points;
+			if (hands.get(winner).size() == 0)
+				break;
+			// The winner leads the next round.
+			leader = winner;
+			Card[] attempt = players[leader].SugguestLeadingCardsRuleBased(leader,
+					Card.VectorToArray(hands.get(leader)), dealer_group);
+			lead = Play(players, hands, leader, LegalLead(players[leader], hands, leader, attempt), null);
+			winning = players[leader].GetWinningPropertyForPlay(lead.clone());
+			points = Points(lead);
+			next = (leader + 1) % num_players;
+		}
+		return score;
+	}
+
+	/**
+	 * A throw that others can beat only gets to play the part that got caught.
+	 */
+	private Card[] LegalLead(AIDealAnalyzer player, Vector<Vector<Card>> hands, int player_id, Card[] attempt) {
+		Vector<Card[]> others_hands = new Vector<Card[]>();
+		for (int p = 0; p < num_players; ++p)
+			if (p != player_id)
+				others_hands.add(Card.VectorToArray(hands.get(p)));
+		Card[] lead = player.FindLegalLeadingCards(attempt.clone(), others_hands);
+		return lead == null ? attempt : lead;
+	}
+
+	/**
+	 * player_id plays cards, everybody sees it.
+	 */
+	private Card[] Play(AIDealAnalyzer[] players, Vector<Vector<Card>> hands, int player_id, Card[] cards, Card[] lead) {
+		if (cards == null || cards.length == 0 || (lead != null && cards.length != lead.length))
+			throw new IllegalStateException("player " + player_id + " made an illegal play");
+		Vector<Card> hand = hands.get(player_id);
+		for (Card c : cards)
+			if (!hand.remove(c))
+				throw new IllegalStateException("player " + player_id + " played a card not in hand");
+		if (lead == null)
+			lead = cards;
+		for (AIDealAnalyzer player : players)
+			player.PlayerPlayedCards(cards.clone(), player_id, lead.clone());
+		return cards;
+	}
+
+	private boolean PastDeadline() {
+		return deadline_nanos != AIDealAnalyzer.NO_DEADLINE && System.nanoTime() - deadline_nanos >= 0;
+	}
+
+	private boolean SameTeam(int first_id, int second_id) {
+		return dealer_group.contains(first_id) == dealer_group.contains(second_id);
+	}
+
+	private static int Points(Card[] cards) {
+		int points = 0;
+		for (Card c : cards)
+			points += c.GetPoints();
+		return points;
+	}
+}
@@ -0,0 +1,204 @@
+package com.android.tractor;
+
+import java.util.Vector;
+
+/**
+ * SingletonCardProperty packed into a single long, for inner loops that would otherwise
+ * clone and Copy() SingletonCardProperty objects over and over.  A packed property is
+ * just a value, so "changing" one returns a new long.
+ *
+ * Bit layout, from the lowest bit:
+ *  4 bits  num_identical_cards
+ *  5 bits  num_sequences
+ *  3 bits  suit + 1
+ *  5 bits  leading_number + 1
+ *  1 bit   is_consecutive
+ *  1 bit   has_other_combo
+ *  3 bits  minor_suit + 1: actual suit of the MINOR_TRUMP_NUMBER cards, if any
+ *  3 bits  trump suit + 1
+ *  5 bits  trump number + 1
+ *  4 bits  last_num_identical_cards
+ *  5 bits  last_num_sequences
+ * The + 1 is so that UNDEFINED/SUIT_UNDEFINED fit.
+ *
+ * num_cards is not stored, it's always num_identical_cards * num_sequences.
+ * card_suit is not stored either.  The numbers in a property are consecutive, so at most
+ * one of them is MINOR_TRUMP_NUMBER, and that's the only card whose actual suit can differ
+ * from suit.  minor_suit records that one suit.
+ *
+ * @author anzhu
+ */
+public class PackedSingletonCardProperty {
+	private static final int NUM_IDENTICAL_CARDS_SHIFT = 0;
+	private static final int NUM_SEQUENCES_SHIFT = 4;
+	private static final int SUIT_SHIFT = 9;
+	private static final int LEADING_NUMBER_SHIFT = 12;
+	private static final int CONSECUTIVE_SHIFT = 17;
+	private static final int OTHER_COMBO_SHIFT = 18;
+	private static final int MINOR_SUIT_SHIFT = 19;
+	private static final int TRUMP_SUIT_SHIFT = 22;
+	private static final int TRUMP_NUMBER_SHIFT = 25;
+	private static final int LAST_NUM_IDENTICAL_CARDS_SHIFT = 30;
+	private static final int LAST_NUM_SEQUENCES_SHIFT = 34;
+
+	private static final long MASK_3 = 0x7;
+	private static final long MASK_4 = 0xf;
+	private static final long MASK_5 = 0x1f;
+
+	private static final long TYPE_MASK = (MASK_4 << NUM_IDENTICAL_CARDS_SHIFT) | (MASK_5 << NUM_SEQUENCES_SHIFT);
+
+	public static long Pack(SingletonCardProperty p) {
+		int minor_suit = p.suit;
+		int number = p.leading_number;
+		for (int i = 0; i < p.num_sequences && i < p.card_suit.size(); ++i) {
+			if (number == SingletonCardProperty.MINOR_TRUMP_NUMBER && p.card_suit.get(i) != null)
+				minor_suit = p.card_suit.get(i);
+			number = CardTracker.GetNextLowerNumber(number, p.GetTrumpNumber());
+		}
+		return Pack(p.num_identical_cards, p.num_sequences, p.suit, p.leading_number,
+				p.is_consecutive, p.has_other_combo, minor_suit, p.GetTrumpSuit(), p.GetTrumpNumber(),
+				p.last_num_identical_cards, p.last_num_sequences);
+	}
+
+	public static long Pack(int num_identical_cards, int num_sequences, int suit, int leading_number,
+			boolean is_consecutive, boolean has_other_combo, int minor_suit, int trump_suit, int trump_number,
+			int last_num_identical_cards, int last_num_sequences) {
+		return ((num_identical_cards & MASK_4) << NUM_IDENTICAL_CARDS_SHIFT) |
+			((num_sequences & MASK_5) << NUM_SEQUENCES_SHIFT) |
+			(((suit + 1) & MASK_3) << SUIT_SHIFT) |
+			(((leading_number + 1) & MASK_5) << LEADING_NUMBER_SHIFT) |
+			((is_consecutive ? 1L : 0L) << CONSECUTIVE_SHIFT) |
+			((has_other_combo ? 1L : 0L) << OTHER_COMBO_SHIFT) |
+			(((minor_suit + 1) & MASK_3) << MINOR_SUIT_SHIFT) |
+			(((trump_suit + 1) & MASK_3) << TRUMP_SUIT_SHIFT) |
+			(((trump_number + 1) & MASK_5) << TRUMP_NUMBER_SHIFT) |
+			((last_num_identical_cards & MASK_4) << LAST_NUM_IDENTICAL_CARDS_SHIFT) |
+			((last_num_sequences & MASK_5) << LAST_NUM_SEQUENCES_SHIFT);
+	}
+
+	public static SingletonCardProperty Unpack(long packed) {
+		SingletonCardProperty p = new SingletonCardProperty(TrumpSuit(packed), TrumpNumber(packed));
+		p.num_identical_cards = NumIdenticalCards(packed);
+		p.num_sequences = NumSequences(packed);
+		p.num_cards = NumCards(packed);
+		p.suit = Suit(packed);
+		p.leading_number = LeadingNumber(packed);
+		p.is_consecutive = IsConsecutive(packed);
+		p.has_other_combo = HasOtherCombo(packed);
+		p.last_num_identical_cards = LastNumIdenticalCards(packed);
+		p.last_num_sequences = LastNumSequences(packed);
+		p.card_suit = new Vector<Integer>(p.num_sequences);
+		for (int i = 0; i < p.num_sequences; ++i)
+			p.card_suit.add(CardSuit(packed, i));
+		return p;
+	}
+
+	public static int NumIdenticalCards(long packed) {
+		return (int) ((packed >>> NUM_IDENTICAL_CARDS_SHIFT) & MASK_4);
+	}
+
+	public static int NumSequences(long packed) {
+		return (int) ((packed >>> NUM_SEQUENCES_SHIFT) & MASK_5);
+	}
+
+	public static int NumCards(long packed) {
+		return NumIdenticalCards(packed) * NumSequences(packed);
+	}
+
+	public static int Suit(long packed) {
+		return (int) ((packed >>> SUIT_SHIFT) & MASK_3) - 1;
+	}
+
+	public static int LeadingNumber(long packed) {
+		return (int) ((packed >>> LEADING_NUMBER_SHIFT) & MASK_5) - 1;
+	}
+
+	public static boolean IsConsecutive(long packed) {
+		return ((packed >>> CONSECUTIVE_SHIFT) & 1) != 0;
+	}
+
+	public static boolean HasOtherCombo(long packed) {
+		return ((packed >>> OTHER_COMBO_SHIFT) & 1) != 0;
+	}
+
+	public static int TrumpSuit(long packed) {
+		return (int) ((packed >>> TRUMP_SUIT_SHIFT) & MASK_3) - 1;
+	}
+
+	public static int TrumpNumber(long packed) {
+		return (int) ((packed >>> TRUMP_NUMBER_SHIFT) & MASK_5) - 1;
+	}
+
+	public static int LastNumIdenticalCards(long packed) {
+		return (int) ((packed >>> LAST_NUM_IDENTICAL_CARDS_SHIFT) & MASK_4);
+	}
+
+	public static int LastNumSequences(long packed) {
+		return (int) ((packed >>> LAST_NUM_SEQUENCES_SHIFT) & MASK_5);
+	}
+
+	/**
+	 * The actual suit of the cards in the i-th sequence, same as card_suit.get(i).
+	 */
+	public static int CardSuit(long packed, int i) {
+		int number = LeadingNumber(packed);
+		int trump_number = TrumpNumber(packed);
+		for (int j = 0; j < i; ++j)
+			number = CardTracker.GetNextLowerNumber(number, trump_number);
+		if (number == SingletonCardProperty.MINOR_TRUMP_NUMBER)
+			return MinorSuit(packed);
+		return Suit(packed);
+	}
+
+	private static int MinorSuit(long packed) {
+		return (int) ((packed >>> MINOR_SUIT_SHIFT) & MASK_3) - 1;
+	}
+
+	public static long SetLeadingNumber(long packed, int leading_number) {
+		return (packed & ~(MASK_5 << LEADING_NUMBER_SHIFT)) |
+			(((leading_number + 1) & MASK_5) << LEADING_NUMBER_SHIFT);
+	}
+
+	/**
+	 * Same as SingletonCardProperty.IsBreakable.
+	 */
+	public static boolean IsBreakable(long p, long target) {
+		return Suit(p) == Suit(target) &&
+			LeadingNumber(p) > LeadingNumber(target) &&
+			NumIdenticalCards(p) >= NumIdenticalCards(target) &&
+			NumSequences(p) >= NumSequences(target);
+	}
+
+	/**
+	 * Same as SingletonCardProperty.IsTrumpable.
+	 */
+	public static boolean IsTrumpable(long p, long target) {
+		int trump_suit = TrumpSuit(p);
+		return Suit(p) == trump_suit &&
+			NumIdenticalCards(p) >= NumIdenticalCards(target) &&
+			NumSequences(p) >= NumSequences(target) &&
+			(Suit(target) != trump_suit || LeadingNumber(p) > LeadingNumber(target));
+	}
+
+	public static boolean IsExactType(long p, long target) {
+		return (p & TYPE_MASK) == (target & TYPE_MASK);
+	}
+
+	/**
+	 * Same as SingletonCardProperty.IsBiggerTypeThan.
+	 */
+	public static boolean IsBiggerTypeThan(long p, long target) {
+		return NumIdenticalCards(p) >= NumIdenticalCards(target) &&
+			NumSequences(p) >= NumSequences(target);
+	}
+
+	/**
+	 * Same as SingletonCardProperty.ConvertToType(new_num_identical_cards, new_num_sequences),
+	 * keeps the leading number and remembers the old type in last_num_*.
+	 */
+	public static long ConvertToType(long packed, int new_num_identical_cards, int new_num_sequences) {
+		return Pack(new_num_identical_cards, new_num_sequences, Suit(packed), LeadingNumber(packed),
+				new_num_sequences > 1, HasOtherCombo(packed), MinorSuit(packed),
+				TrumpSuit(packed), TrumpNumber(packed), NumIdenticalCards(packed), NumSequences(packed));
+	}
+}
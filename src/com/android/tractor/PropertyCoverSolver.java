@@ -0,0 +1,261 @@
+package com.android.tractor;
+
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Answers "can these cards cover these properties, and with which cards" exactly, for cards
+ * of one play suit.  Leading numbers don't matter, only types, same as
+ * CardAnalyzer.FindCardsToCoverProperties.
+ *
+ * A property of num_identical_cards k and num_sequences s needs s consecutive property numbers
+ * (see CardTracker.GetNextLowerNumber), with k copies of one card at each.  Every distinct
+ * card with at least a pair is a slot, and the hand is the count per slot, packed into a
+ * long.  At MINOR_TRUMP_NUMBER there can be several slots (the trump number of each non
+ * trump suit), and a run goes through one of them.  The properties are placed biggest first,
+ * and (property, counts) pairs already worked out are remembered, so that the different
+ * orders of reaching the same counts are only followed once.  Singles fit anywhere, so they
+ * only count towards the total.
+ *
+ * Hands whose counts don't fit in a long (lots of decks), or with cards of several play
+ * suits, aren't supported, see IsSupported().
+ *
+ * @author anzhu
+ */
+public class PropertyCoverSolver {
+	private static final long INFEASIBLE = Long.MAX_VALUE;
+
+	private final Card[] cards;
+	private final int[] identical;  // per property to place, biggest first.
+	private final int[] sequences;
+	private int total_cards = 0;
+	private boolean supported = true;
+
+	private int num_slots = 0;
+	private int[] slot_card;  // card index of the slot
+	private int[] slot_number;  // property number of the slot
+	private int[][] lower_slots;  // slots one number lower, i.e., that continue a run.
+	private int bits;
+	private long count_mask;
+	private long initial_state = 0;
+	private boolean want_points;
+	private Vector<HashMap<Long, Long>> memo;  // per property index, made on first use
+
+	public PropertyCoverSolver(Vector<SingletonCardProperty> properties, Card[] cards, int trump_suit, int trump_number) {
+		this.cards = cards;
+		int num_properties = 0;
+		int min_identical = Integer.MAX_VALUE;
+		for (SingletonCardProperty p : properties) {
+			total_cards += p.num_cards;
+			if (p.num_identical_cards > 1) {
+				num_properties++;
+				min_identical = Math.min(min_identical, p.num_identical_cards);
+			}
+		}
+		identical = new int[num_properties];
+		sequences = new int[num_properties];
+		int n = 0;
+		for (SingletonCardProperty p : properties) {
+			if (p.num_identical_cards <= 1)
+				continue;
+			// Insertion sort, biggest first: the most constrained ones cut the search early.
+			int i = n++;
+			while (i > 0 && (identical[i - 1] * sequences[i - 1] < p.num_cards ||
+					(identical[i - 1] * sequences[i - 1] == p.num_cards && identical[i - 1] < p.num_identical_cards))) {
+				identical[i] = identical[i - 1];
+				sequences[i] = sequences[i - 1];
+				i--;
+			}
+			identical[i] = p.num_identical_cards;
+			sequences[i] = p.num_sequences;
+		}
+		memo = new Vector<HashMap<Long, Long>>();
+		memo.setSize(num_properties + 1);
+
+		int[] num_cards = new int[Card.CARDS_PER_DECK];
+		int play_suit = Card.SUIT_UNDEFINED;
+		for (Card c : cards) {
+			int index = c.GetIndex();
+			int suit = c.CalculatePlaySuit(trump_suit, trump_number);
+			if (!DealOrdering.IsValidIndex(index) || (play_suit != Card.SUIT_UNDEFINED && suit != play_suit)) {
+				supported = false;
+				return;
+			}
+			play_suit = suit;
+			num_cards[index]++;
+		}
+		if (num_properties == 0)
+			return;
+		// Slots, and the biggest count among them.
+		int max_count = 0;
+		slot_card = new int[Card.CARDS_PER_DECK];
+		slot_number = new int[Card.CARDS_PER_DECK];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i) {
+			if (num_cards[i] < min_identical)
+				continue;
+			slot_card[num_slots] = i;
+			slot_number[num_slots] = SingletonCardProperty.ConvertToPropertyNumber(Card.of(i), trump_suit, trump_number);
+			num_slots++;
+			max_count = Math.max(max_count, num_cards[i]);
+		}
+		bits = Math.max(32 - Integer.numberOfLeadingZeros(max_count), 1);
+		if (num_slots * bits > 63) {
+			supported = false;
+			return;
+		}
+		count_mask = (1L << bits) - 1;
+		lower_slots = new int[num_slots][];
+		for (int s = 0; s < num_slots; ++s) {
+			initial_state |= (long) num_cards[slot_card[s]] << (s * bits);
+			int lower_number = CardTracker.GetNextLowerNumber(slot_number[s], trump_number);
+			int num_lower = 0;
+			for (int t = 0; t < num_slots; ++t)
+				if (slot_number[t] == lower_number)
+					num_lower++;
+			lower_slots[s] = new int[num_lower];
+			num_lower = 0;
+			for (int t = 0; t < num_slots; ++t)
+				if (slot_number[t] == lower_number)
+					lower_slots[s][num_lower++] = t;
+		}
+	}
+
+	/**
+	 * Whether this solver can handle the hand at all, CanCover() and Cover() shouldn't be
+	 * called otherwise.
+	 */
+	public boolean IsSupported() {
+		return supported;
+	}
+
+	public boolean CanCover() {
+		if (total_cards > cards.length)
+			return false;
+		want_points = false;
+		return Search(0, initial_state, false) != INFEASIBLE;
+	}
+
+	/**
+	 * Finds the cards to cover the properties with more than one card, singles are left to the
+	 * caller.  Among all the ways of covering, picks the one with the most points if
+	 * want_points, the least otherwise, and then the one using the lowest numbers, which keeps
+	 * the big cards (e.g., high trumps) in hand.
+	 *
+	 * @param want_points
+	 * @return the cards, sorted by property, null if there's no covering.
+	 */
+	public Card[] Cover(boolean want_points) {
+		if (total_cards > cards.length)
+			return null;
+		this.want_points = want_points;
+		for (int i = 0; i < memo.size(); ++i)
+			memo.set(i, null);
+		long state = initial_state;
+		if (Search(0, state, true) == INFEASIBLE)
+			return null;
+		Vector<Card> cover = new Vector<Card>();
+		int[] run = new int[Card.CARDS_PER_DECK];
+		for (int i = 0; i < identical.length; ++i) {
+			long[] next = new long[1];
+			FindPlacement(i, state, 0, run, Search(i, state, true), next);
+			for (int j = 0; j < sequences[i]; ++j)
+				for (int k = 0; k < identical[i]; ++k)
+					cover.add(Card.of(slot_card[run[j]]));
+			state = next[0];
+		}
+		return cover.toArray(new Card[0]);
+	}
+
+	/**
+	 * Cheapest cost of placing properties index and on from state, INFEASIBLE if they can't
+	 * be placed.  Without optimize, any placement will do, i.e., the answer is 0 or INFEASIBLE.
+	 */
+	private long Search(int index, long state, boolean optimize) {
+		if (index == identical.length)
+			return 0;
+		HashMap<Long, Long> known_costs = memo.get(index);
+		if (known_costs == null) {
+			known_costs = new HashMap<Long, Long>();
+			memo.set(index, known_costs);
+		}
+		Long known = known_costs.get(state);
+		if (known != null)
+			return known;
+		int[] run = new int[sequences[index]];
+		long best = INFEASIBLE;
+		for (int s = 0; s < num_slots && (optimize || best == INFEASIBLE); ++s)
+			best = Math.min(best, Place(index, state, s, 0, run, optimize));
+		known_costs.put(state, best);
+		return best;
+	}
+
+	// Extends a run of property index with slot at position depth, then places the rest.
+	private long Place(int index, long state, int slot, int depth, int[] run, boolean optimize) {
+		if (Count(state, slot) < identical[index])
+			return INFEASIBLE;
+		run[depth] = slot;
+		if (depth + 1 < sequences[index]) {
+			long best = INFEASIBLE;
+			for (int lower : lower_slots[slot]) {
+				best = Math.min(best, Place(index, state, lower, depth + 1, run, optimize));
+				if (!optimize && best != INFEASIBLE)
+					break;
+			}
+			return best;
+		}
+		long next = state;
+		long cost = 0;
+		for (int j = 0; j < sequences[index]; ++j) {
+			next -= (long) identical[index] << (run[j] * bits);
+			cost += identical[index] * Cost(run[j]);
+		}
+		long rest = Search(index + 1, next, optimize);
+		return rest == INFEASIBLE ? INFEASIBLE : cost + rest;
+	}
+
+	// Finds a run of property index from state that achieves target, the result ends up in run
+	// and the state after placing it in next[0].
+	private boolean FindPlacement(int index, long state, int depth, int[] run, long target, long[] next) {
+		int[] choices;
+		if (depth == 0) {
+			choices = new int[num_slots];
+			for (int s = 0; s < num_slots; ++s)
+				choices[s] = s;
+		} else {
+			choices = lower_slots[run[depth - 1]];
+		}
+		for (int slot : choices) {
+			if (Count(state, slot) < identical[index])
+				continue;
+			run[depth] = slot;
+			if (depth + 1 < sequences[index]) {
+				if (FindPlacement(index, state, depth + 1, run, target, next))
+					return true;
+				continue;
+			}
+			long after = state;
+			long cost = 0;
+			for (int j = 0; j < sequences[index]; ++j) {
+				after -= (long) identical[index] << (run[j] * bits);
+				cost += identical[index] * Cost(run[j]);
+			}
+			long rest = Search(index + 1, after, true);
+			if (rest != INFEASIBLE && cost + rest == target) {
+				next[0] = after;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int Count(long state, int slot) {
+		return (int) ((state >>> (slot * bits)) & count_mask);
+	}
+
+	// Per card cost of using slot: points first, then the property number, i.e., how big the
+	// card is in its suit.
+	private long Cost(int slot) {
+		int points = Card.of(slot_card[slot]).GetPoints();
+		return (want_points ? 10 - points : points) * 32 + slot_number[slot];
+	}
+}
@@ -1,140 +1,337 @@
-package com.android.tractor;
-
-import java.util.Arrays;
-import java.util.Vector;
-
-public class SingletonCardPropertyProbability {
-	/* We are having a 4-dimensional array of probability table, keyed by
-	 * 1. Number of players: max value is Tractor.MAX_PLAYERS
-	 * 2. Number of decks: max value is Tractor.MAX_DECKS
-	 * 3. Number of identical cards: max value is Tractor.MAX_DECKS
-	 * 4. Number of sequences: max value is SingletonCardProperty.BIG_JOKER
-	 */
-	static double[][][][] type_probabilities = new double[Tractor.MAX_PLAYERS][Tractor.MAX_DECKS][Tractor.MAX_DECKS][SingletonCardProperty.BIG_JOKER];
-	static {
-		// Arrays.fill apparently only works on one dimensional arrays, sigh.
-		// We *could* just use the default value 0, but I'm paranoid, so...
-		for (int i = 0; i < Tractor.MAX_PLAYERS; ++i)
-			for (int j = 0; j < Tractor.MAX_DECKS; ++j)
-				for (int k = 0; k < Tractor.MAX_DECKS; ++k)
-					for (int l = 0; l < SingletonCardProperty.BIG_JOKER; ++l)
-						type_probabilities[i][j][k][l] = -1;
-	}
-	
-	static double Probability(int total_players, int num_decks, int num_identical_cards, int num_sequences) {
-		// First check to see if the numbers are within range.  Sometimes when we do testing, we test on
-		// numbers not necessarily follow constants in Tractor.java.
-		boolean numbers_in_range = true;
-		if (total_players > Tractor.MAX_PLAYERS || num_decks > Tractor.MAX_DECKS ||
-				num_identical_cards > Tractor.MAX_DECKS || num_sequences > SingletonCardProperty.BIG_JOKER)
-			numbers_in_range = false;
-		double prob = -1;
-		if (numbers_in_range)
-			prob = type_probabilities[total_players - 1][num_decks - 1][num_identical_cards - 1][num_sequences - 1];
-		if (prob != -1)  // If we have already calculated for this combination, return
-			return prob;
-		// Do the actual calculation.
-		Vector<Integer> num_cards = new Vector<Integer>();
-		for (int i = 0; i < num_sequences; ++i)
-			num_cards.add(num_decks);
-		// prob = ProbabilityExact(total_players, num_cards, false, num_identical_cards, num_sequences);
-		prob = ProbabilityApproximate(total_players, num_cards, false, num_identical_cards, num_sequences);
-		if (numbers_in_range)
-			type_probabilities[total_players - 1][num_decks - 1][num_identical_cards - 1][num_sequences - 1] = prob;
-		return prob;
-	}
-	
-	// Zhu An's first approximation.	
-	public static double ProbabilityApproximate(int total_players, Vector<Integer> num_cards, boolean fixed_targeting_player,
-			int num_identical_cards, int num_sequences) {
-		// First some short cut.  If we don't have even enough cards to make up the property,
-		// zero chance.
-		for (Integer i : num_cards)
-			if (i < num_identical_cards)
-				return 0;
-		// Now an approximate calculation.  First the simple case, no consecutive pairs.
-		// N cards, M players, what's the probability
-		// one of the player has at least K such cards?  Do the calculation of no player has
-		// K or more cards.  Look at the choice of each card, which player does it go to.
-		// Look at K of the card choices all together. We
-		// can assume that all N choose K cases are independent events.  Of each K cards, 
-		// the probability of them not all go to a single player i is: 1 - (1/M)^(K - 1).
-		// 
-		// Now factor in the num_sequences, say S.  Now we are looking at:
-		// N cards, S*K cards should be selected, K cards per number, we can easily calculate
-		// that as product of each of the selections (as the exponent).
-		// Now for each of S*K cards, the probability of them not all go to one player is:
-		// q = 1 - (1/M)^(SK - 1) = (M^(SK - 1) - 1) / M^(SK-1) = (P - 1) / P
-		// The overall probability is then: prob = 1 - q^exponent.
-		// Got the idea from this wiki:
-		// http://en.wikipedia.org/wiki/Birthday_paradox#Approximation_of_number_of_people
-		double SK_minus_1 = num_identical_cards * num_sequences - 1;
-		if (fixed_targeting_player)  // the cards have to avoid a particular player.
-			SK_minus_1++;
-		double P = Math.pow(total_players, SK_minus_1);
-		double exponent = 1;
-		for (int i = 0; i < num_sequences; ++i) {
-			exponent *= NChooseM(num_cards.get(i), num_identical_cards);
-		}
-		double prob = 1 -  Math.pow((P - 1) / P , exponent);
-		return prob;
-	}
-	
-	// An exact solution.
-	// 强!
-	public static double ProbabilityExact(int total_players, Vector<Integer> num_cards, int num_identical_cards, int num_sequences) {
-	    // calc p = Prob(ANY has the required (k,num_seq) tuple)
-		double p = 0;
-		int sign = 1;
-outer:
-		for (int i=1; /* until ik>n_j */ ; i++) {
-		    // Inner loop calcs:
-		    // pp = Prob(a GIVEN i players all have the required (k,num_seq) tuple)
-			double pp = 1;
-			int ik = i*num_identical_cards;
-			for (int j=0; j<num_sequences; j++) {
-				int n = num_cards.get(j);
-				if (ik > n) break outer;
-				// MQC: this is still not quite right...
-				pp *= NPermuteM(n, ik)
-				/ Math.pow(NPermuteM(num_identical_cards, num_identical_cards), i)
-				/ Math.pow(total_players, ik);
-			}
-			// compute p by inclusion-exclusion principle
-			p += NChooseM(total_players, i) * pp * sign;
-			sign = -sign;
-		}
-		return p;
-	}
-	
-	/**
-	 * Returns the combinatorial number of all possible ways of choosing
-	 * m objects out of the n objects.
-	 * 
-	 * @param n total number of objects to choose from
-	 * @param m number of objects to choose
-	 * @return total number of choices
-	 */
-	static public int NChooseM(int n, int m) {
-		if (n < m)
-			return 0;
-		int total = 1;
-		if (m > n -m )
-			m = n - m;
-		for (int i = n; i > n - m; i--) {
-			total *= i;
-		}
-		for (int i = 2; i <= m; i++) {
-			total /= m;
-		}
-		return total;
-	}
-	
-	static private int NPermuteM(int n, int m) {
-		int total = 1;
-		for (int i = n; i > n - m; i--) {
-			total *= i;
-		}
-		return total;
-	}
-}
+package com.android.tractor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SingletonCardPropertyProbability {
+	/* Combinatorics tables, so that nothing in the probability calculations overflows an int
+	 * or calls Math.pow.
+	 * binomial[n][m]: n choose m as a double, Pascal's triangle up to MAX_TABLE_N.
+	 * powers[b][e]: b^e for b up to MAX_PLAYERS and e up to MAX_EXPONENT, which covers the
+	 *   biggest property (MAX_DECKS identical cards, BIG_JOKER sequences) plus one.
+	 * log_factorial[n]: ln(n!) up to every card of MAX_DECKS decks, for n choose m beyond
+	 *   the triangle.
+	 */
+	static final int MAX_TABLE_N = Tractor.MAX_DECKS * Tractor.MAX_PLAYERS;
+	static final int MAX_EXPONENT = Tractor.MAX_DECKS * SingletonCardProperty.BIG_JOKER + 1;
+	static final int MAX_LOG_FACTORIAL_N = Tractor.MAX_DECKS * Card.CARDS_PER_DECK;
+	private static final double[][] binomial = new double[MAX_TABLE_N + 1][];
+	private static final double[][] powers = new double[Tractor.MAX_PLAYERS + 1][MAX_EXPONENT + 1];
+	private static final double[] log_factorial = new double[MAX_LOG_FACTORIAL_N + 1];
+	static {
+		for (int n = 0; n <= MAX_TABLE_N; ++n) {
+			binomial[n] = new double[n + 1];
+			binomial[n][0] = binomial[n][n] = 1;
+			for (int m = 1; m < n; ++m)
+				binomial[n][m] = binomial[n - 1][m - 1] + binomial[n - 1][m];
+		}
+		for (int b = 0; b <= Tractor.MAX_PLAYERS; ++b) {
+			powers[b][0] = 1;
+			for (int e = 1; e <= MAX_EXPONENT; ++e)
+				powers[b][e] = powers[b][e - 1] * b;
+		}
+		log_factorial[0] = 0;
+		for (int n = 1; n <= MAX_LOG_FACTORIAL_N; ++n)
+			log_factorial[n] = log_factorial[n - 1] + Math.log(n);
+	}
+	
+	/* We are having a 4-dimensional probability table, keyed by
+	 * 1. Number of players: max value is Tractor.MAX_PLAYERS
+	 * 2. Number of decks: max value is Tractor.MAX_DECKS
+	 * 3. Number of identical cards: max value is Tractor.MAX_DECKS
+	 * 4. Number of sequences: max value is SingletonCardProperty.BIG_JOKER
+	 * flattened into one array (see TableIndex).  The table is only ever published whole,
+	 * either by Precompute or by Load, and never changes afterwards, so readers on any thread
+	 * just need the volatile read.
+	 */
+	static final int TABLE_SIZE =
+		Tractor.MAX_PLAYERS * Tractor.MAX_DECKS * Tractor.MAX_DECKS * SingletonCardProperty.BIG_JOKER;
+	private static volatile double[] type_probabilities = null;
+	private static final Object table_lock = new Object();
+
+	static double Probability(int total_players, int num_decks, int num_identical_cards, int num_sequences) {
+		// First check to see if the numbers are within range.  Sometimes when we do testing, we test on
+		// numbers not necessarily follow constants in Tractor.java.
+		if (total_players < 1 || total_players > Tractor.MAX_PLAYERS ||
+				num_decks < 1 || num_decks > Tractor.MAX_DECKS ||
+				num_identical_cards < 1 || num_identical_cards > Tractor.MAX_DECKS ||
+				num_sequences < 1 || num_sequences > SingletonCardProperty.BIG_JOKER)
+			return ComputeProbability(total_players, num_decks, num_identical_cards, num_sequences);
+		double[] table = type_probabilities;
+		if (table == null) {
+			// Nobody precomputed or loaded the table, do it now, once.
+			Precompute(1);
+			table = type_probabilities;
+		}
+		return table[TableIndex(total_players, num_decks, num_identical_cards, num_sequences)];
+	}
+
+	private static double ComputeProbability(int total_players, int num_decks, int num_identical_cards, int num_sequences) {
+		Vector<Integer> num_cards = new Vector<Integer>();
+		for (int i = 0; i < num_sequences; ++i)
+			num_cards.add(num_decks);
+		// return ProbabilityExact(total_players, num_cards, num_identical_cards, num_sequences);
+		return ProbabilityApproximate(total_players, num_cards, false, num_identical_cards, num_sequences);
+	}
+
+	private static int TableIndex(int total_players, int num_decks, int num_identical_cards, int num_sequences) {
+		return (((total_players - 1) * Tractor.MAX_DECKS + num_decks - 1) * Tractor.MAX_DECKS +
+				num_identical_cards - 1) * SingletonCardProperty.BIG_JOKER + num_sequences - 1;
+	}
+
+	public static boolean IsTableReady() {
+		return type_probabilities != null;
+	}
+
+	/**
+	 * Fills in the whole probability table, one number of players per task, using up to
+	 * num_threads threads.  Meant to be kicked off at startup, so that the first game doesn't
+	 * pay for it.  Does nothing if the table is already there.
+	 *
+	 * @param num_threads
+	 */
+	public static void Precompute(int num_threads) {
+		synchronized (table_lock) {
+			if (type_probabilities != null)
+				return;
+			final double[] table = new double[TABLE_SIZE];
+			if (num_threads <= 1) {
+				for (int players = 1; players <= Tractor.MAX_PLAYERS; ++players)
+					FillTable(table, players);
+			} else {
+				ExecutorService executor = Executors.newFixedThreadPool(Math.min(num_threads, Tractor.MAX_PLAYERS));
+				Vector<Future<?>> tasks = new Vector<Future<?>>();
+				for (int players = 1; players <= Tractor.MAX_PLAYERS; ++players) {
+					final int p = players;
+					tasks.add(executor.submit(new Runnable() {
+						public void run() {
+							FillTable(table, p);
+						}
+					}));
+				}
+				try {
+					for (Future<?> task : tasks)
+						task.get();
+				} catch (Exception e) {
+					// Shouldn't happen, fall back to doing it here.
+					Util.e("SingletonCardPropertyProbability", "Precompute failed: " + e);
+					for (int players = 1; players <= Tractor.MAX_PLAYERS; ++players)
+						FillTable(table, players);
+				} finally {
+					executor.shutdown();
+				}
+			}
+			// Future.get() makes the worker writes visible here, the volatile write publishes them.
+			type_probabilities = table;
+		}
+	}
+
+	private static void FillTable(double[] table, int total_players) {
+		for (int d = 1; d <= Tractor.MAX_DECKS; ++d)
+			for (int k = 1; k <= Tractor.MAX_DECKS; ++k)
+				for (int s = 1; s <= SingletonCardProperty.BIG_JOKER; ++s)
+					table[TableIndex(total_players, d, k, s)] = ComputeProbability(total_players, d, k, s);
+	}
+
+	/**
+	 * Loads a table written by Save, e.g., one generated at build time by main(...) and
+	 * shipped as a resource.  Replaces whatever table there was.
+	 *
+	 * @param input
+	 * @throws IOException if the table is truncated or was built for different limits.
+	 */
+	public static void Load(InputStream input) throws IOException {
+		DataInputStream in = new DataInputStream(input);
+		if (in.readInt() != Tractor.MAX_PLAYERS || in.readInt() != Tractor.MAX_DECKS ||
+				in.readInt() != SingletonCardProperty.BIG_JOKER)
+			throw new IOException("probability table built for different limits");
+		double[] table = new double[TABLE_SIZE];
+		for (int i = 0; i < TABLE_SIZE; ++i)
+			table[i] = in.readDouble();
+		synchronized (table_lock) {
+			type_probabilities = table;
+		}
+	}
+
+	public static void Save(OutputStream output) throws IOException {
+		Precompute(1);
+		DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(Tractor.MAX_PLAYERS);
+		out.writeInt(Tractor.MAX_DECKS);
+		out.writeInt(SingletonCardProperty.BIG_JOKER);
+		double[] table = type_probabilities;
+		for (int i = 0; i < TABLE_SIZE; ++i)
+			out.writeDouble(table[i]);
+		out.flush();
+	}
+
+	/**
+	 * Writes the precomputed table to argv[0], for shipping it along with the app.
+	 */
+	public static void main(String[] argv) throws IOException {
+		Precompute(Runtime.getRuntime().availableProcessors());
+		FileOutputStream out = new FileOutputStream(argv[0]);
+		try {
+			Save(out);
+		} finally {
+			out.close();
+		}
+	}
+	
+	// Zhu An's first approximation.	
+	public static double ProbabilityApproximate(int total_players, Vector<Integer> num_cards, boolean fixed_targeting_player,
+			int num_identical_cards, int num_sequences) {
+		// First some short cut.  If we don't have even enough cards to make up the property,
+		// zero chance.
+		for (Integer i : num_cards)
+			if (i < num_identical_cards)
+				return 0;
+		// Now an approximate calculation.  First the simple case, no consecutive pairs.
+		// N cards, M players, what's the probability
+		// one of the player has at least K such cards?  Do the calculation of no player has
+		// K or more cards.  Look at the choice of each card, which player does it go to.
+		// Look at K of the card choices all together. We
+		// can assume that all N choose K cases are independent events.  Of each K cards, 
+		// the probability of them not all go to a single player i is: 1 - (1/M)^(K - 1).
+		// 
+		// Now factor in the num_sequences, say S.  Now we are looking at:
+		// N cards, S*K cards should be selected, K cards per number, we can easily calculate
+		// that as product of each of the selections (as the exponent).
+		// Now for each of S*K cards, the probability of them not all go to one player is:
+		// q = 1 - (1/M)^(SK - 1) = (M^(SK - 1) - 1) / M^(SK-1) = (P - 1) / P
+		// The overall probability is then: prob = 1 - q^exponent.
+		// Got the idea from this wiki:
+		// http://en.wikipedia.org/wiki/Birthday_paradox#Approximation_of_number_of_people
+		int SK_minus_1 = num_identical_cards * num_sequences - 1;
+		if (fixed_targeting_player)  // the cards have to avoid a particular player.
+			SK_minus_1++;
+		double P = Power(total_players, SK_minus_1);
+		// q^(C1 * C2 * ... * CS) = (...((q^C1)^C2)...)^CS, and each Ci is a small integer, so
+		// this is just a few multiplications per sequence.
+		double q_to_exponent = (P - 1) / P;
+		for (int i = 0; i < num_sequences; ++i) {
+			double choices = NChooseM(num_cards.get(i), num_identical_cards);
+			if (choices > Integer.MAX_VALUE)
+				return 1 - Math.pow(q_to_exponent, choices);  // Not really possible with MAX_DECKS.
+			q_to_exponent = IntPower(q_to_exponent, (int) choices);
+		}
+		return 1 - q_to_exponent;
+	}
+
+	/**
+	 * Same approximation as above, but instead of spreading the cards evenly, the caller
+	 * gives together_probability, the probability that one pick of K cards per number all go
+	 * to a player that matters (see CardBelief.AllCopiesProbability).  With an even spread
+	 * among M players this is the 1/P above.
+	 */
+	public static double ProbabilityWithOdds(double together_probability, Vector<Integer> num_cards,
+			int num_identical_cards, int num_sequences) {
+		for (Integer i : num_cards)
+			if (i < num_identical_cards)
+				return 0;
+		double q_to_exponent = 1 - together_probability;
+		for (int i = 0; i < num_sequences; ++i) {
+			double choices = NChooseM(num_cards.get(i), num_identical_cards);
+			if (choices > Integer.MAX_VALUE)
+				return 1 - Math.pow(q_to_exponent, choices);
+			q_to_exponent = IntPower(q_to_exponent, (int) choices);
+		}
+		return 1 - q_to_exponent;
+	}
+	
+	// An exact solution.
+	// 强!
+	public static double ProbabilityExact(int total_players, Vector<Integer> num_cards, int num_identical_cards, int num_sequences) {
+	    // calc p = Prob(ANY has the required (k,num_seq) tuple)
+		double p = 0;
+		int sign = 1;
+		double k_factorial = NPermuteM(num_identical_cards, num_identical_cards);
+outer:
+		for (int i=1; /* until ik>n_j */ ; i++) {
+		    // Inner loop calcs:
+		    // pp = Prob(a GIVEN i players all have the required (k,num_seq) tuple)
+			double pp = 1;
+			int ik = i*num_identical_cards;
+			// Same for every sequence.
+			double divisor = IntPower(k_factorial, i) * Power(total_players, ik);
+			for (int j=0; j<num_sequences; j++) {
+				int n = num_cards.get(j);
+				if (ik > n) break outer;
+				// MQC: this is still not quite right...
+				pp *= NPermuteM(n, ik) / divisor;
+			}
+			// compute p by inclusion-exclusion principle
+			p += NChooseM(total_players, i) * pp * sign;
+			sign = -sign;
+		}
+		return p;
+	}
+	
+	/**
+	 * Returns the combinatorial number of all possible ways of choosing
+	 * m objects out of the n objects.  A double, since with several decks this easily
+	 * goes beyond an int.
+	 * 
+	 * @param n total number of objects to choose from
+	 * @param m number of objects to choose
+	 * @return total number of choices
+	 */
+	static public double NChooseM(int n, int m) {
+		if (m < 0 || n < m)
+			return 0;
+		if (n <= MAX_TABLE_N)
+			return binomial[n][m];
+		if (n <= MAX_LOG_FACTORIAL_N)
+			return Math.floor(Math.exp(log_factorial[n] - log_factorial[m] - log_factorial[n - m]) + 0.5);
+		if (m > n - m)
+			m = n - m;
+		double total = 1;
+		for (int i = 1; i <= m; i++)
+			total = total * (n - m + i) / i;
+		return total;
+	}
+	
+	/**
+	 * n! / (n - m)!, as a double.
+	 */
+	static double NPermuteM(int n, int m) {
+		if (m < 0 || n < m)
+			return 0;
+		double total = 1;
+		for (int i = n; i > n - m; i--) {
+			total *= i;
+		}
+		return total;
+	}
+
+	/**
+	 * base^exponent for a non-negative exponent, from the table when possible.
+	 */
+	static double Power(int base, int exponent) {
+		if (base >= 0 && base <= Tractor.MAX_PLAYERS && exponent >= 0 && exponent <= MAX_EXPONENT)
+			return powers[base][exponent];
+		return IntPower(base, exponent);
+	}
+
+	/**
+	 * x^exponent by repeated squaring, for a non-negative exponent.
+	 */
+	static double IntPower(double x, int exponent) {
+		double result = 1;
+		while (exponent > 0) {
+			if ((exponent & 1) != 0)
+				result *= x;
+			x *= x;
+			exponent >>= 1;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,108 @@
+package com.android.tractor;
+
+/**
+ * How the remaining cards of a suit are likely split among the players that may still hold
+ * the suit.  Each of the n remaining cards is assumed to go to any of the M players equally
+ * likely, so the number of cards a given player holds is Binomial(n, 1/M).
+ *
+ * All the cumulative probabilities are worked out once per (decks, players) when a deal
+ * starts, so the queries are plain array lookups.  Instances never change after
+ * construction, and are shared through Get(...).
+ *
+ * @author anzhu
+ */
+public class SuitDistribution {
+	// A suit never has more than this many cards per deck: trump suit, 2 jokers and the
+	// trump number of the other 3 suits.
+	private static final int MAX_CARDS_PER_DECK = Card.CARDS_PER_SUIT + 5;
+	private static final SuitDistribution[][] distributions =
+		new SuitDistribution[Tractor.MAX_DECKS + 1][Tractor.MAX_PLAYERS + 1];
+
+	private final int max_cards;
+	private final int max_players;
+	// at_least[m][n][k]: probability that a given one of m players holds at least k of n
+	// cards, for k in [0, n + 1].
+	private final double[][][] at_least;
+
+	/**
+	 * Returns the shared distribution for a game of num_decks and num_players.
+	 *
+	 * @param num_decks
+	 * @param num_players
+	 * @return
+	 */
+	public static SuitDistribution Get(int num_decks, int num_players) {
+		if (num_decks < 1 || num_decks > Tractor.MAX_DECKS ||
+			num_players < 1 || num_players > Tractor.MAX_PLAYERS)
+			return new SuitDistribution(num_decks, num_players);
+		// Racing threads may both build one, which is harmless since it never changes.
+		SuitDistribution distribution = distributions[num_decks][num_players];
+		if (distribution == null) {
+			distribution = new SuitDistribution(num_decks, num_players);
+			distributions[num_decks][num_players] = distribution;
+		}
+		return distribution;
+	}
+
+	private SuitDistribution(int num_decks, int num_players) {
+		max_cards = MAX_CARDS_PER_DECK * Math.max(num_decks, 0);
+		max_players = Math.max(num_players, 1);
+		at_least = new double[max_players + 1][][];
+		for (int m = 1; m <= max_players; ++m) {
+			at_least[m] = new double[max_cards + 1][];
+			double p = (double) 1 / m;
+			// exactly[k] = P(Binomial(n, p) == k), built up one card at a time.
+			double[] exactly = new double[max_cards + 1];
+			exactly[0] = 1;
+			for (int n = 0; n <= max_cards; ++n) {
+				if (n > 0) {
+					for (int k = n; k > 0; --k)
+						exactly[k] = exactly[k] * (1 - p) + exactly[k - 1] * p;
+					exactly[0] *= 1 - p;
+				}
+				double[] row = new double[n + 2];
+				row[n + 1] = 0;
+				for (int k = n; k >= 0; --k)
+					row[k] = row[k + 1] + exactly[k];
+				// Rounding can push the sums a tiny bit above 1.
+				for (int k = 0; k <= n; ++k)
+					row[k] = Math.min(row[k], 1);
+				row[0] = 1;
+				at_least[m][n] = row;
+			}
+		}
+	}
+
+	/**
+	 * Probability that a given player holds at least num_cards of the total_cards remaining
+	 * in a suit, when total_players players may hold the suit.
+	 *
+	 * @param total_cards
+	 * @param total_players
+	 * @param num_cards
+	 * @return
+	 */
+	public double AtLeast(int total_cards, int total_players, int num_cards) {
+		if (num_cards <= 0)
+			return 1;
+		if (total_players <= 0 || total_cards < num_cards)
+			return 0;
+		if (total_players > max_players || total_cards > max_cards)
+			return Compute(total_cards, total_players, num_cards);
+		return at_least[total_players][total_cards][num_cards];
+	}
+
+	// For numbers outside of the table, shouldn't happen in a real game.
+	private static double Compute(int total_cards, int total_players, int num_cards) {
+		if (total_players == 1)
+			return 1;
+		double p = (double) 1 / total_players;
+		double term = Math.pow(1 - p, total_cards);  // exactly 0 cards
+		double below = 0;
+		for (int k = 0; k < num_cards; ++k) {
+			below += term;
+			term *= (double) (total_cards - k) / (k + 1) * p / (1 - p);
+		}
+		return Math.max(0, 1 - below);
+	}
+}
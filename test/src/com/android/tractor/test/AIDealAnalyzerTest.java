@@ -1,462 +1,991 @@
-package com.android.tractor.test;
-
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Vector;
-
-import com.android.tractor.AIDealAnalyzer;
-import com.android.tractor.Card;
-import com.android.tractor.FollowCardSet;
-import com.android.tractor.SingletonCardProperty;
-
-import junit.framework.TestCase;
-
-public class AIDealAnalyzerTest extends TestCase {
-	int trumpSuit = Card.SUIT_HEART;
-	int trumpNumber = Card.NUMBER_TWO;
-	int numDecks = 2;
-	int numPlayers = 4;
-	int myId = 1;
-	Vector<Integer> dealerGroup =  new Vector<Integer>();
-	
-	public void testSuggestTractorCards() {
-		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		// Create hand
-		int[] suit_spade = {1, 1, 2};
-		int[] suit_club = {1, 2, 0, 1, 0 ,2, 1};
-		int[] suit_diamond = {2, 0, 0, 0, 1, 1, 0, 1};
-		int[] suit_heart = {1, 1, 1, 1, 1, 1, 1, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_heart, Card.SUIT_HEART, Card.NUMBER_ACE));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond, Card.SUIT_DIAMOND, Card.NUMBER_ACE));
-		Vector<Card> tractor_cards = analyzer.SuggestTractorCards(myId, 6);
-		Collections.sort(tractor_cards);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_JACK, Card.SUIT_CLUB);
-		// What if we want more tractor cards?
-		tractor_cards = analyzer.SuggestTractorCards(myId, 9);
-		Collections.sort(tractor_cards);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(6), Card.NUMBER_JACK, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(7), Card.NUMBER_KING, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(8), Card.NUMBER_ACE, Card.SUIT_SPADE);
-		
-		// Add a few more trump cards to make AI bury more points.
-		int[] suit_heart_2 = {1, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_heart_2, Card.SUIT_HEART, Card.NUMBER_ACE));
-		tractor_cards = analyzer.SuggestTractorCards(myId, 6);
-		Collections.sort(tractor_cards);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_JACK, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_KING, Card.SUIT_SPADE);
-		
-		// Now a new setup.  Too many points for any suit
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_diamond_2 = {1, 0, 0, 1};
-		int[] suit_club_2 = {2, 0, 0, 2};
-		int[] suit_spade_2 = {1, 0, 0, 2};
-		// no trumps!
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_spade_2, Card.SUIT_SPADE, Card.NUMBER_KING));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond_2, Card.SUIT_DIAMOND, Card.NUMBER_KING));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_KING));
-		tractor_cards = analyzer.SuggestTractorCards(myId, 4);
-		Collections.sort(tractor_cards);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_KING, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_KING, Card.SUIT_SPADE);
-	}
-
-	public void testSugguestLeadingCardsRuleBased() {
-		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		dealerGroup.add(0);
-		dealerGroup.add(2);
-		// Create hand of interest
-		int[] suit_club = {1, 2, 0, 1, 0 ,2, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		Card[] lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		Card[] play_cards = new Card[2];
-		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);
-		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);
-		analyzer.PlayerPlayedCards(play_cards, myId, play_cards);
-		Card[] follow_cards = new Card[2];
-		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_THREE);
-		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FOUR);
-		// myId = 0
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 1) % numPlayers, play_cards);
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 2) % numPlayers, play_cards);
-		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
-		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_SIX);
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 3) % numPlayers, play_cards);
-		// Need to be able to recognize that since nobody followed with pairs, pairs are good.
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_NINE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		
-		// Now test triple vs. pair:
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, 3, myId);
-		// Create hand of interest
-		int[] suit_club_1 = {1, 2, 0, 2, 0 ,2, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_1, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 1);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);;
-		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);;
-		analyzer.PlayerPlayedCards(play_cards, myId, play_cards);
-		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_THREE);
-		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FOUR);
-		// myId = 0
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 1) % numPlayers, play_cards);
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 2) % numPlayers, play_cards);
-		analyzer.PlayerPlayedCards(follow_cards, (myId + 3) % numPlayers, play_cards);
-		// Need to be able to recognize that even though nobody played pairs, pairs are not good.
-		// And so we can't play the two small pairs all together.  Actually, the simpler function
-		// at the moment doesn't consider triples, it just considers pairs.
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 1);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		
-		// Now test that we can property recognize that others might trump us if we have played too many cards.
-		// Now test triple vs. pair:
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_club_2 = {1, 2, 0, 2, 0 ,2, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_SPADE, Card.NUMBER_ACE));
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
-		play_cards = new Card[3];
-		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_QUEEN);
-		play_cards[1] = new Card(Card.SUIT_SPADE, Card.NUMBER_EIGHT);
-		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_SEVEN);
-		analyzer.PlayerPlayedCards(play_cards, (myId + 1) % numPlayers, lead_cards);
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_SPADE);
-		
-		// Lead play with single cards should also be covered
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_club_3 = {1, 2, 1, 1, 1 ,1, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_3, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_SPADE, Card.NUMBER_ACE));
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
-		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
-		play_cards = new Card[3];
-		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_QUEEN);
-		play_cards[1] = new Card(Card.SUIT_SPADE, Card.NUMBER_EIGHT);
-		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_SEVEN);
-		analyzer.PlayerPlayedCards(play_cards, (myId + 1) % numPlayers, lead_cards);
-		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_JACK);
-		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_ACE);
-		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_FOUR);
-		analyzer.PlayerPlayedCards(play_cards, (myId + 2) % numPlayers, lead_cards);
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 3);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_SPADE);
-		
-		// Suggest void suit
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_club_4 = {1, 1, 0, 2, 0 ,1, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_4, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		lead_cards = new Card[1];
-		lead_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_ACE);
-		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
-		play_cards = new Card[1];
-		play_cards[0] = new Card(Card.SUIT_SPADE, Card.NUMBER_FIVE);
-		analyzer.PlayerPlayedCards(play_cards, (myId + 2) % numPlayers, lead_cards);
-		// Now make 2 don't have a trump pair.  But since we are going to play a single card, this is OK.
-		analyzer.PlayerPlayedCards(CardPropertyTest.CreateNoneTrumpCards(0, 1, 1, 0, 0, 0, trumpSuit), 2, CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 0, 0, 0, trumpSuit));
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 1);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
-		
-		// don't suggest a suit has high chance of being trumped
-		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_club_5 = {2, 2, 2, 2, 2 ,2, 2, 2, 2, 2, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_5, Card.SUIT_CLUB, Card.NUMBER_ACE));
-		int[] suit_diamond = {2};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond, Card.SUIT_DIAMOND, Card.NUMBER_KING));
-		int[] suit_trump = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
-		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_trump, trumpSuit, Card.NUMBER_ACE));
-		int[] lead_club = {2, 2, 2, 2, 2 ,2, 2, 2, 2, 0, 1};
-		lead_cards = CardPropertyTest.CreateCards(lead_club, Card.SUIT_CLUB, Card.NUMBER_ACE);
-		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
-		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
-		assertTrue(lead_cards.length == 2);
-		Arrays.sort(lead_cards);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_DIAMOND);
-	}
-	
-	public void testSelectCardTargetingPoints() {
-		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
-		int[] suit_club = {2, 2, 1, 1};
-		Vector<Card> selected_cards =
-			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_TEN), 1, Integer.MAX_VALUE, true);
-		assertTrue(selected_cards.size() == 1);
-		Collections.sort(selected_cards);
-		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_TEN, Card.SUIT_CLUB);
-		
-		int[] suit_club_2 = {2, 2};
-		selected_cards =
-			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 1, 0, true);
-		assertTrue(selected_cards.size() == 1);
-		Collections.sort(selected_cards);
-		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_ACE, Card.SUIT_CLUB);
-		selected_cards =
-			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 3, 0, true);
-		// We wouldn't be breaking up the properties when respecting points limit.
-		assertTrue(selected_cards.size() == 0);
-		selected_cards =
-			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 3, 0, false);
-		assertTrue(selected_cards.size() == 3);
-		Collections.sort(selected_cards);
-		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_KING, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(selected_cards.get(1), Card.NUMBER_ACE, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(selected_cards.get(2), Card.NUMBER_ACE, Card.SUIT_CLUB);
-	}
-	
-	
-	public void testCompleteFollowCardSet() {
-		AIDealAnalyzer analyzer = new AIDealAnalyzer(Card.SUIT_HEART, Card.NUMBER_THREE, numPlayers, numDecks, myId);
-		
-		Card[] lead_play = CardPropertyTest.CreateNoneTrumpCards(0, 0, 0, 2, 2, 0, Card.SUIT_CLUB);
-		Card[] hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 2, 0);
-		Card[] hand_part2 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 4, 0, 2, 0, Card.SUIT_CLUB);
-		Card[] hand_part3 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 0, 2, 0, Card.SUIT_SPADE);
-		Card[] hand = new Card[hand_part1.length + hand_part3.length];
-		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
-		System.arraycopy(hand_part3, 0, hand, hand_part1.length, hand_part3.length);
-		FollowCardSet set = new FollowCardSet(FollowCardSet.MAX_POINTS, FollowCardSet.MAX_POSSIBLE, FollowCardSet.TRUMP_FOLLOW);
-		SingletonCardProperty winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 2, 4);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		
-		System.arraycopy(hand_part2, 0 , hand, 0, hand_part2.length);
-		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		assertTrue(winning_property == null);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_EIGHT, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_EIGHT, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FOUR, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FOUR, Card.SUIT_CLUB);
-		
-		lead_play = CardPropertyTest.CreateNoneTrumpCards(0, 0, 0, 2, 0, 2, Card.SUIT_CLUB);
-		hand_part3 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 2, 0, 0, Card.SUIT_HEART);
-		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
-		System.arraycopy(hand_part3, 0, hand, hand_part1.length, hand_part3.length);
-		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
-		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FIVE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FIVE, Card.SUIT_HEART);
-		set.point_attribute = FollowCardSet.MIN_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		set.lead_magnitude_attribute = FollowCardSet.MIN_POSSIBLE;
-		set.point_attribute = FollowCardSet.MAX_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.FIVE, 2, 1, 2);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FIVE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FIVE, Card.SUIT_HEART);
-		set.point_attribute = FollowCardSet.MIN_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.EIGHT, 2, 1, 2);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_EIGHT, Card.SUIT_HEART);
-		
-		lead_play = CardPropertyTest.CreateNoneTrumpCards(3, 0, 0, 3, 0, 2, Card.SUIT_CLUB);
-		hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 3, 3);
-		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
-		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
-		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 8);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 3, 1, 3);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(set.follow_cards[5], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[6], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[7], Card.NUMBER_ACE, Card.SUIT_HEART);
-		
-		lead_play = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 2, 0, 1, Card.SUIT_CLUB);
-		hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 3, 3);
-		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
-		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
-		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 5);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_ACE, Card.SUIT_HEART);
-		
-		// Check that even though we are avoiding points, we should not take QQJJ to match the 2*2 first.  Because then TTKK
-		// can't trump the rest.
-		lead_play = CardPropertyTest.CreateNoneTrumpCards(2, 2, 0, 2, 2, 0, Card.SUIT_CLUB);
-		int[] num_cards = { 2, 2, 2, 2, 1};
-		hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_HEART, Card.NUMBER_KING);
-		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
-		set.lead_magnitude_attribute = FollowCardSet.MIN_POSSIBLE;
-		set.point_attribute = FollowCardSet.MIN_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 8);
-		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.JACK, 2, 2, 4);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_KING, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_KING, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_QUEEN, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_QUEEN, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_JACK, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[5], Card.NUMBER_JACK, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[6], Card.NUMBER_TEN, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[7], Card.NUMBER_TEN, Card.SUIT_HEART);
-
-		int[] num_lead_cards = {2};
-		lead_play = CardPropertyTest.CreateCards(num_lead_cards, Card.SUIT_CLUB, Card.NUMBER_ACE);
-		int[] num_hand_cards = {2, 0, 0, 0, 2};
-		hand = CardPropertyTest.CreateCards(num_hand_cards, Card.SUIT_CLUB, Card.NUMBER_TEN);
-		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
-		set.point_attribute = FollowCardSet.MAX_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 2);
-		assertTrue(winning_property == null);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		
-		analyzer = new AIDealAnalyzer(Card.SUIT_HEART, Card.NUMBER_FIVE, 6, 3, myId);
-		lead_play = CardPropertyTest.CreateCards(new int[]{2, 2}, Card.SUIT_HEART, Card.NUMBER_NINE);
-		hand = CardPropertyTest.CreateCards(new int[] { 2, 2, 0, 2}, Card.SUIT_HEART, Card.NUMBER_ACE);
-		Card[] real_hand = new Card[hand.length + 2];
-		real_hand[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
-		real_hand[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
-		System.arraycopy(hand, 0, real_hand, 2, hand.length);
-		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
-		set.point_attribute = FollowCardSet.MIN_POINTS;
-		winning_property = analyzer.CompleteFollowCardSet(lead_play, real_hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
-		assertTrue(set.follow_cards.length == 4);
-		assertTrue(winning_property == null);
-		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_ACE, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_JACK, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_JACK, Card.SUIT_HEART);
-	}
-	
-	public void testSuggestCardsToFollowRuleBased() {
-		int trump_suit = Card.SUIT_HEART;
-		int trump_number = Card.NUMBER_THREE;
-		int num_players = 6;
-		int num_decks = 4;
-		int my_id = 1;
-		AIDealAnalyzer analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
-		int[] my_trump = {3, 1, 1, 1};
-		Card[] trump_cards = CardPropertyTest.CreateCards(my_trump, trump_suit, Card.NUMBER_NO_GUARANTEE);
-		analyzer.AddCardsToMyHand(trump_cards);
-		Card[] lead_play = new Card[1];
-		lead_play[0] = new Card(Card.SUIT_NO_TRUMP, Card.NUMBER_GUARANTEE);
-		SingletonCardProperty current_winning_property = new SingletonCardProperty(lead_play[0], trump_suit, trump_number);
-		Vector<Integer> dealer_group = new Vector<Integer>();
-		dealer_group.add(0);
-		dealer_group.add(2);
-		dealer_group.add(4);
-		Card[] follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, true, 2, dealer_group);
-		assertTrue(follow_play.length == 1);
-		// We should not be playing KING of heart!  Ideally, not big joker, either, but maybe this is for later.
-		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
-		
-		analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
-		int[] my_trump_2 = {2, 2, 1, 1};
-		trump_cards = CardPropertyTest.CreateCards(my_trump_2, trump_suit, Card.NUMBER_NO_GUARANTEE);
-		analyzer.AddCardsToMyHand(trump_cards);
-		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, false, 2, dealer_group);
-		assertTrue(follow_play.length == 1);
-		// Should be playing the big joker!
-		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
-		
-		analyzer = new AIDealAnalyzer(Card.SUIT_DIAMOND, Card.NUMBER_THREE, 4, 2, my_id);
-		trump_cards = CardPropertyTest.CreateTrumpCards(1, 1, 2, 0, 1, 0);
-		Card[] more_trumps = CardPropertyTest.CreateCards(new int[]{2}, Card.SUIT_DIAMOND, Card.NUMBER_KING);
-		Card[] total_trump = new Card[trump_cards.length + more_trumps.length];
-		System.arraycopy(more_trumps, 0, total_trump, 0, more_trumps.length);
-		System.arraycopy(trump_cards, 0, total_trump, more_trumps.length, trump_cards.length);
-		analyzer.AddCardsToMyHand(total_trump);
-		current_winning_property = new SingletonCardProperty(lead_play[0], Card.SUIT_DIAMOND, Card.NUMBER_THREE);
-		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, total_trump, current_winning_property, false, 1, dealer_group);
-		assertTrue(follow_play.length == 1);
-		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_THREE, Card.SUIT_HEART);
-		
-		analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
-		trump_cards = CardPropertyTest.CreateCards(my_trump, trump_suit, Card.NUMBER_GUARANTEE);
-		analyzer.AddCardsToMyHand(trump_cards);
-		lead_play[0] = new Card(Card.SUIT_HEART, Card.NUMBER_ACE);
-		current_winning_property = new SingletonCardProperty(lead_play[0], trump_suit, trump_number);
-		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, true, 2, dealer_group);
-		assertTrue(follow_play.length == 1);
-		// We should not be playing small joker.  It's not winning, and doesn't achieve anything useful.
-		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_QUEEN, Card.SUIT_HEART);
-	}
-}
+package com.android.tractor.test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Vector;
+
+import com.android.tractor.AIDealAnalyzer;
+import com.android.tractor.AILearner;
+import com.android.tractor.AILinearLearner;
+import com.android.tractor.AIOnlineLearner;
+import com.android.tractor.AISharedLearner;
+import com.android.tractor.AfterStateTable;
+import com.android.tractor.CandidateSet;
+import com.android.tractor.Card;
+import com.android.tractor.CardBelief;
+import com.android.tractor.CardOrganizer;
+import com.android.tractor.FeatureBuffer;
+import com.android.tractor.FollowCardSet;
+import com.android.tractor.FollowContext;
+import com.android.tractor.LegalPlayIterator;
+import com.android.tractor.MonteCarloSearch;
+import com.android.tractor.SingletonCardProperty;
+
+import junit.framework.TestCase;
+
+public class AIDealAnalyzerTest extends TestCase {
+	int trumpSuit = Card.SUIT_HEART;
+	int trumpNumber = Card.NUMBER_TWO;
+	int numDecks = 2;
+	int numPlayers = 4;
+	int myId = 1;
+	Vector<Integer> dealerGroup =  new Vector<Integer>();
+	
+	public void testSuggestTractorCards() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		// Create hand
+		int[] suit_spade = {1, 1, 2};
+		int[] suit_club = {1, 2, 0, 1, 0 ,2, 1};
+		int[] suit_diamond = {2, 0, 0, 0, 1, 1, 0, 1};
+		int[] suit_heart = {1, 1, 1, 1, 1, 1, 1, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_heart, Card.SUIT_HEART, Card.NUMBER_ACE));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond, Card.SUIT_DIAMOND, Card.NUMBER_ACE));
+		Vector<Card> tractor_cards = analyzer.SuggestTractorCards(myId, 6);
+		Collections.sort(tractor_cards);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_JACK, Card.SUIT_CLUB);
+		// What if we want more tractor cards?
+		tractor_cards = analyzer.SuggestTractorCards(myId, 9);
+		Collections.sort(tractor_cards);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(6), Card.NUMBER_JACK, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(7), Card.NUMBER_KING, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(8), Card.NUMBER_ACE, Card.SUIT_SPADE);
+		
+		// Add a few more trump cards to make AI bury more points.
+		int[] suit_heart_2 = {1, 1, 1, 1, 1, 1, 1, 1, 2, 2, 2, 2};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_heart_2, Card.SUIT_HEART, Card.NUMBER_ACE));
+		tractor_cards = analyzer.SuggestTractorCards(myId, 6);
+		Collections.sort(tractor_cards);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_NINE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_EIGHT, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(4), Card.NUMBER_JACK, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(5), Card.NUMBER_KING, Card.SUIT_SPADE);
+		
+		// Now a new setup.  Too many points for any suit
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_diamond_2 = {1, 0, 0, 1};
+		int[] suit_club_2 = {2, 0, 0, 2};
+		int[] suit_spade_2 = {1, 0, 0, 2};
+		// no trumps!
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_spade_2, Card.SUIT_SPADE, Card.NUMBER_KING));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond_2, Card.SUIT_DIAMOND, Card.NUMBER_KING));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_KING));
+		tractor_cards = analyzer.SuggestTractorCards(myId, 4);
+		Collections.sort(tractor_cards);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(0), Card.NUMBER_TEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(1), Card.NUMBER_KING, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(2), Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(tractor_cards.get(3), Card.NUMBER_KING, Card.SUIT_SPADE);
+	}
+
+	public void testSugguestLeadingCardsRuleBased() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		dealerGroup.add(0);
+		dealerGroup.add(2);
+		// Create hand of interest
+		int[] suit_club = {1, 2, 0, 1, 0 ,2, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		Card[] lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		Card[] play_cards = new Card[2];
+		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);
+		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);
+		analyzer.PlayerPlayedCards(play_cards, myId, play_cards);
+		Card[] follow_cards = new Card[2];
+		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_THREE);
+		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FOUR);
+		// myId = 0
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 1) % numPlayers, play_cards);
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 2) % numPlayers, play_cards);
+		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
+		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_SIX);
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 3) % numPlayers, play_cards);
+		// Need to be able to recognize that since nobody followed with pairs, pairs are good.
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_NINE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		
+		// Now test triple vs. pair:
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, 3, myId);
+		// Create hand of interest
+		int[] suit_club_1 = {1, 2, 0, 2, 0 ,2, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_1, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 1);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);;
+		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_KING);;
+		analyzer.PlayerPlayedCards(play_cards, myId, play_cards);
+		follow_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_THREE);
+		follow_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FOUR);
+		// myId = 0
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 1) % numPlayers, play_cards);
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 2) % numPlayers, play_cards);
+		analyzer.PlayerPlayedCards(follow_cards, (myId + 3) % numPlayers, play_cards);
+		// Need to be able to recognize that even though nobody played pairs, pairs are not good.
+		// And so we can't play the two small pairs all together.  Actually, the simpler function
+		// at the moment doesn't consider triples, it just considers pairs.
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 1);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		
+		// Now test that we can property recognize that others might trump us if we have played too many cards.
+		// Now test triple vs. pair:
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_club_2 = {1, 2, 0, 2, 0 ,2, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_SPADE, Card.NUMBER_ACE));
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
+		play_cards = new Card[3];
+		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_QUEEN);
+		play_cards[1] = new Card(Card.SUIT_SPADE, Card.NUMBER_EIGHT);
+		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_SEVEN);
+		analyzer.PlayerPlayedCards(play_cards, (myId + 1) % numPlayers, lead_cards);
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_SPADE);
+		
+		// Lead play with single cards should also be covered
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_club_3 = {1, 2, 1, 1, 1 ,1, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_3, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_2, Card.SUIT_SPADE, Card.NUMBER_ACE));
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_CLUB);
+		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
+		play_cards = new Card[3];
+		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_QUEEN);
+		play_cards[1] = new Card(Card.SUIT_SPADE, Card.NUMBER_EIGHT);
+		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_SEVEN);
+		analyzer.PlayerPlayedCards(play_cards, (myId + 1) % numPlayers, lead_cards);
+		play_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_JACK);
+		play_cards[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_ACE);
+		play_cards[2] = new Card(Card.SUIT_SPADE, Card.NUMBER_FOUR);
+		analyzer.PlayerPlayedCards(play_cards, (myId + 2) % numPlayers, lead_cards);
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 3);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(lead_cards[1], Card.NUMBER_KING, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(lead_cards[2], Card.NUMBER_ACE, Card.SUIT_SPADE);
+		
+		// Suggest void suit
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_club_4 = {1, 1, 0, 2, 0 ,1, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_4, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		lead_cards = new Card[1];
+		lead_cards[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_ACE);
+		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
+		play_cards = new Card[1];
+		play_cards[0] = new Card(Card.SUIT_SPADE, Card.NUMBER_FIVE);
+		analyzer.PlayerPlayedCards(play_cards, (myId + 2) % numPlayers, lead_cards);
+		// Now make 2 don't have a trump pair.  But since we are going to play a single card, this is OK.
+		analyzer.PlayerPlayedCards(CardPropertyTest.CreateNoneTrumpCards(0, 1, 1, 0, 0, 0, trumpSuit), 2, CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 0, 0, 0, trumpSuit));
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 1);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_CLUB);
+		
+		// don't suggest a suit has high chance of being trumped
+		analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_club_5 = {2, 2, 2, 2, 2 ,2, 2, 2, 2, 2, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_club_5, Card.SUIT_CLUB, Card.NUMBER_ACE));
+		int[] suit_diamond = {2};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_diamond, Card.SUIT_DIAMOND, Card.NUMBER_KING));
+		int[] suit_trump = {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_trump, trumpSuit, Card.NUMBER_ACE));
+		int[] lead_club = {2, 2, 2, 2, 2 ,2, 2, 2, 2, 0, 1};
+		lead_cards = CardPropertyTest.CreateCards(lead_club, Card.SUIT_CLUB, Card.NUMBER_ACE);
+		analyzer.PlayerPlayedCards(lead_cards, myId, lead_cards);
+		lead_cards = analyzer.SugguestLeadingCardsRuleBased(myId, dealerGroup);
+		assertTrue(lead_cards.length == 2);
+		Arrays.sort(lead_cards);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(lead_cards[0], Card.NUMBER_KING, Card.SUIT_DIAMOND);
+	}
+	
+	public void testSelectCardTargetingPoints() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_club = {2, 2, 1, 1};
+		Vector<Card> selected_cards =
+			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_TEN), 1, Integer.MAX_VALUE, true);
+		assertTrue(selected_cards.size() == 1);
+		Collections.sort(selected_cards);
+		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_TEN, Card.SUIT_CLUB);
+		
+		int[] suit_club_2 = {2, 2};
+		selected_cards =
+			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 1, 0, true);
+		assertTrue(selected_cards.size() == 1);
+		Collections.sort(selected_cards);
+		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_ACE, Card.SUIT_CLUB);
+		selected_cards =
+			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 3, 0, true);
+		// We wouldn't be breaking up the properties when respecting points limit.
+		assertTrue(selected_cards.size() == 0);
+		selected_cards =
+			analyzer.SelectCardTargetingPoints(CardPropertyTest.CreateVectorCards(suit_club_2, Card.SUIT_CLUB, Card.NUMBER_ACE), 3, 0, false);
+		assertTrue(selected_cards.size() == 3);
+		Collections.sort(selected_cards);
+		CardAnalyzerTest.CheckCard(selected_cards.get(0), Card.NUMBER_KING, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(selected_cards.get(1), Card.NUMBER_ACE, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(selected_cards.get(2), Card.NUMBER_ACE, Card.SUIT_CLUB);
+	}
+	
+	
+	public void testCompleteFollowCardSet() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(Card.SUIT_HEART, Card.NUMBER_THREE, numPlayers, numDecks, myId);
+		
+		Card[] lead_play = CardPropertyTest.CreateNoneTrumpCards(0, 0, 0, 2, 2, 0, Card.SUIT_CLUB);
+		Card[] hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 2, 0);
+		Card[] hand_part2 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 4, 0, 2, 0, Card.SUIT_CLUB);
+		Card[] hand_part3 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 0, 2, 0, Card.SUIT_SPADE);
+		Card[] hand = new Card[hand_part1.length + hand_part3.length];
+		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
+		System.arraycopy(hand_part3, 0, hand, hand_part1.length, hand_part3.length);
+		FollowCardSet set = new FollowCardSet(FollowCardSet.MAX_POINTS, FollowCardSet.MAX_POSSIBLE, FollowCardSet.TRUMP_FOLLOW);
+		SingletonCardProperty winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 2, 4);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		
+		System.arraycopy(hand_part2, 0 , hand, 0, hand_part2.length);
+		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		assertTrue(winning_property == null);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_EIGHT, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_EIGHT, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FOUR, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FOUR, Card.SUIT_CLUB);
+		
+		lead_play = CardPropertyTest.CreateNoneTrumpCards(0, 0, 0, 2, 0, 2, Card.SUIT_CLUB);
+		hand_part3 = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 2, 0, 0, Card.SUIT_HEART);
+		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
+		System.arraycopy(hand_part3, 0, hand, hand_part1.length, hand_part3.length);
+		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
+		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FIVE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FIVE, Card.SUIT_HEART);
+		set.point_attribute = FollowCardSet.MIN_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		set.lead_magnitude_attribute = FollowCardSet.MIN_POSSIBLE;
+		set.point_attribute = FollowCardSet.MAX_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.FIVE, 2, 1, 2);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_FIVE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_FIVE, Card.SUIT_HEART);
+		set.point_attribute = FollowCardSet.MIN_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.EIGHT, 2, 1, 2);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_EIGHT, Card.SUIT_HEART);
+		
+		lead_play = CardPropertyTest.CreateNoneTrumpCards(3, 0, 0, 3, 0, 2, Card.SUIT_CLUB);
+		hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 3, 3);
+		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
+		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
+		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 8);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 3, 1, 3);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(set.follow_cards[5], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[6], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[7], Card.NUMBER_ACE, Card.SUIT_HEART);
+		
+		lead_play = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 2, 0, 1, Card.SUIT_CLUB);
+		hand_part1 = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 3, 3);
+		System.arraycopy(hand_part1, 0 , hand, 0, hand_part1.length);
+		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
+		set.lead_magnitude_attribute = FollowCardSet.MAX_POSSIBLE;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 5);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.MAJOR_TRUMP_NUMBER, 2, 1, 2);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_THREE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_ACE, Card.SUIT_HEART);
+		
+		// Check that even though we are avoiding points, we should not take QQJJ to match the 2*2 first.  Because then TTKK
+		// can't trump the rest.
+		lead_play = CardPropertyTest.CreateNoneTrumpCards(2, 2, 0, 2, 2, 0, Card.SUIT_CLUB);
+		int[] num_cards = { 2, 2, 2, 2, 1};
+		hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_HEART, Card.NUMBER_KING);
+		set.play_attribute = FollowCardSet.TRUMP_FOLLOW;
+		set.lead_magnitude_attribute = FollowCardSet.MIN_POSSIBLE;
+		set.point_attribute = FollowCardSet.MIN_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 8);
+		CardPropertyTest.CheckCardProperty(winning_property, SingletonCardProperty.JACK, 2, 2, 4);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_KING, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_KING, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_QUEEN, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_QUEEN, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[4], Card.NUMBER_JACK, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[5], Card.NUMBER_JACK, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[6], Card.NUMBER_TEN, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[7], Card.NUMBER_TEN, Card.SUIT_HEART);
+
+		int[] num_lead_cards = {2};
+		lead_play = CardPropertyTest.CreateCards(num_lead_cards, Card.SUIT_CLUB, Card.NUMBER_ACE);
+		int[] num_hand_cards = {2, 0, 0, 0, 2};
+		hand = CardPropertyTest.CreateCards(num_hand_cards, Card.SUIT_CLUB, Card.NUMBER_TEN);
+		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
+		set.point_attribute = FollowCardSet.MAX_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 2);
+		assertTrue(winning_property == null);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		
+		analyzer = new AIDealAnalyzer(Card.SUIT_HEART, Card.NUMBER_FIVE, 6, 3, myId);
+		lead_play = CardPropertyTest.CreateCards(new int[]{2, 2}, Card.SUIT_HEART, Card.NUMBER_NINE);
+		hand = CardPropertyTest.CreateCards(new int[] { 2, 2, 0, 2}, Card.SUIT_HEART, Card.NUMBER_ACE);
+		Card[] real_hand = new Card[hand.length + 2];
+		real_hand[0] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
+		real_hand[1] = new Card(Card.SUIT_CLUB, Card.NUMBER_FIVE);
+		System.arraycopy(hand, 0, real_hand, 2, hand.length);
+		set.play_attribute = FollowCardSet.NO_LEAD_FOLLOW;
+		set.point_attribute = FollowCardSet.MIN_POINTS;
+		winning_property = analyzer.CompleteFollowCardSet(lead_play, real_hand, analyzer.GetWinningPropertyForPlay(lead_play), set);
+		assertTrue(set.follow_cards.length == 4);
+		assertTrue(winning_property == null);
+		CardAnalyzerTest.CheckCard(set.follow_cards[0], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[1], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[2], Card.NUMBER_JACK, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(set.follow_cards[3], Card.NUMBER_JACK, Card.SUIT_HEART);
+	}
+	
+	public void testFollowContext() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(Card.SUIT_HEART, Card.NUMBER_THREE, numPlayers, numDecks, myId);
+		Card[] lead_play = CardPropertyTest.CreateNoneTrumpCards(0, 0, 0, 2, 2, 0, Card.SUIT_CLUB);
+		Card[] trumps = CardPropertyTest.CreateTrumpCards(1, 3, 1, 1, 2, 0);
+		Card[] clubs = CardPropertyTest.CreateNoneTrumpCards(2, 0, 4, 0, 2, 0, Card.SUIT_CLUB);
+		Card[] spades = CardPropertyTest.CreateNoneTrumpCards(2, 0, 0, 0, 2, 0, Card.SUIT_SPADE);
+		Vector<Card> all_cards = new Vector<Card>(Arrays.asList(trumps));
+		all_cards.addAll(Arrays.asList(spades));
+		Card[] no_clubs = all_cards.toArray(new Card[0]);
+		all_cards.addAll(Arrays.asList(clubs));
+		Card[] with_clubs = all_cards.toArray(new Card[0]);
+		SingletonCardProperty property = analyzer.GetWinningPropertyForPlay(lead_play);
+		for (Card[] hand : new Card[][] {no_clubs, with_clubs}) {
+			FollowContext context = new FollowContext(analyzer, lead_play, hand, property);
+			assertSame(context.GetForcedProperties(), context.GetForcedProperties());
+			assertSame(context.GetRestLeadProperties(), context.GetRestLeadProperties());
+			// Every variant picks the same cards with the shared context as on its own.
+			for (FollowCardSet set : FollowCardSet.AllPossibleSets()) {
+				FollowCardSet shared = new FollowCardSet(set.point_attribute, set.lead_magnitude_attribute, set.play_attribute);
+				SingletonCardProperty winning = analyzer.CompleteFollowCardSet(lead_play, hand, property, set);
+				SingletonCardProperty shared_winning = analyzer.CompleteFollowCardSet(context, shared);
+				assertEquals(winning == null, shared_winning == null);
+				assertTrue(Arrays.equals(set.follow_cards, shared.follow_cards));
+			}
+		}
+	}
+
+	public void testSuggestCardsToFollowRuleBased() {
+		int trump_suit = Card.SUIT_HEART;
+		int trump_number = Card.NUMBER_THREE;
+		int num_players = 6;
+		int num_decks = 4;
+		int my_id = 1;
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
+		int[] my_trump = {3, 1, 1, 1};
+		Card[] trump_cards = CardPropertyTest.CreateCards(my_trump, trump_suit, Card.NUMBER_NO_GUARANTEE);
+		analyzer.AddCardsToMyHand(trump_cards);
+		Card[] lead_play = new Card[1];
+		lead_play[0] = new Card(Card.SUIT_NO_TRUMP, Card.NUMBER_GUARANTEE);
+		SingletonCardProperty current_winning_property = new SingletonCardProperty(lead_play[0], trump_suit, trump_number);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		dealer_group.add(4);
+		Card[] follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, true, 2, dealer_group);
+		assertTrue(follow_play.length == 1);
+		// We should not be playing KING of heart!  Ideally, not big joker, either, but maybe this is for later.
+		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
+		
+		analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
+		int[] my_trump_2 = {2, 2, 1, 1};
+		trump_cards = CardPropertyTest.CreateCards(my_trump_2, trump_suit, Card.NUMBER_NO_GUARANTEE);
+		analyzer.AddCardsToMyHand(trump_cards);
+		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, false, 2, dealer_group);
+		assertTrue(follow_play.length == 1);
+		// Should be playing the big joker!
+		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
+		
+		analyzer = new AIDealAnalyzer(Card.SUIT_DIAMOND, Card.NUMBER_THREE, 4, 2, my_id);
+		trump_cards = CardPropertyTest.CreateTrumpCards(1, 1, 2, 0, 1, 0);
+		Card[] more_trumps = CardPropertyTest.CreateCards(new int[]{2}, Card.SUIT_DIAMOND, Card.NUMBER_KING);
+		Card[] total_trump = new Card[trump_cards.length + more_trumps.length];
+		System.arraycopy(more_trumps, 0, total_trump, 0, more_trumps.length);
+		System.arraycopy(trump_cards, 0, total_trump, more_trumps.length, trump_cards.length);
+		analyzer.AddCardsToMyHand(total_trump);
+		current_winning_property = new SingletonCardProperty(lead_play[0], Card.SUIT_DIAMOND, Card.NUMBER_THREE);
+		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, total_trump, current_winning_property, false, 1, dealer_group);
+		assertTrue(follow_play.length == 1);
+		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_THREE, Card.SUIT_HEART);
+		
+		analyzer = new AIDealAnalyzer(trump_suit, trump_number, num_players, num_decks, my_id);
+		trump_cards = CardPropertyTest.CreateCards(my_trump, trump_suit, Card.NUMBER_GUARANTEE);
+		analyzer.AddCardsToMyHand(trump_cards);
+		lead_play[0] = new Card(Card.SUIT_HEART, Card.NUMBER_ACE);
+		current_winning_property = new SingletonCardProperty(lead_play[0], trump_suit, trump_number);
+		follow_play = analyzer.SuggestCardsToFollowRuleBased(my_id, lead_play, trump_cards, current_winning_property, true, 2, dealer_group);
+		assertTrue(follow_play.length == 1);
+		// We should not be playing small joker.  It's not winning, and doesn't achieve anything useful.
+		CardAnalyzerTest.CheckCard(follow_play[0], Card.NUMBER_QUEEN, Card.SUIT_HEART);
+	}
+
+	public void testCardBelief() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_spade = {1, 1};
+		analyzer.AddCardsToMyHand(CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_KING));
+		CardBelief belief = analyzer.GetBelief();
+		int spade_ace = Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE).GetIndex();
+		int spade_king = Card.of(Card.SUIT_SPADE, Card.NUMBER_KING).GetIndex();
+		final double EPSILON = 1e-9;
+		assertEquals(belief.ExpectedCopies(0, spade_ace), 2.0 / 3, EPSILON);
+		assertEquals(belief.ExpectedCopies(0, spade_king), 1.0 / 3, EPSILON);
+		assertEquals(belief.ExpectedCopies(myId, spade_king), 0, EPSILON);
+		// 12 spade numbers in 2 decks, minus the 2 we hold.
+		assertEquals(belief.ExpectedCardsInSuit(0, Card.SUIT_SPADE), 22.0 / 3, EPSILON);
+		assertEquals(belief.VoidProbability(0, Card.SUIT_SPADE), Math.pow(2.0 / 3, 22), EPSILON);
+
+		// Player 0 leads the spade ace, the other copy is with 2 or 3.
+		Card[] lead = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE)};
+		analyzer.PlayerPlayedCards(lead, 0, lead);
+		assertEquals(belief.ExpectedCopies(0, spade_ace), 0, EPSILON);
+		assertEquals(belief.ExpectedCopies(2, spade_ace), 0.5, EPSILON);
+		// Player 2 can't follow, so player 3 has everything in spades we haven't seen.
+		Card[] follow = {Card.of(Card.SUIT_CLUB, Card.NUMBER_FIVE)};
+		analyzer.PlayerPlayedCards(follow, 2, lead);
+		assertTrue(belief.IsVoid(2, Card.SUIT_SPADE));
+		assertEquals(belief.VoidProbability(2, Card.SUIT_SPADE), 1, EPSILON);
+		assertEquals(belief.ExpectedCopies(3, spade_ace), 1, EPSILON);
+		assertEquals(belief.ExpectedCardsInSuit(0, Card.SUIT_SPADE) +
+				belief.ExpectedCardsInSuit(3, Card.SUIT_SPADE), 21, EPSILON);
+	}
+
+	public void testMonteCarloPick() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		// Second to last round: player 2 leads the spade king, player 3 (my partner) follows
+		// with a ten and player 0 with a five, so 25 points go to whoever wins.
+		Card[] hand = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE), Card.of(Card.SUIT_SPADE, Card.NUMBER_THREE)};
+		analyzer.AddCardsToMyHand(hand);
+		Card[] lead = {Card.of(Card.SUIT_SPADE, Card.NUMBER_KING)};
+		analyzer.PlayerPlayedCards(lead.clone(), 2, lead.clone());
+		analyzer.PlayerPlayedCards(new Card[] {Card.of(Card.SUIT_SPADE, Card.NUMBER_TEN)}, 3, lead.clone());
+		analyzer.PlayerPlayedCards(new Card[] {Card.of(Card.SUIT_SPADE, Card.NUMBER_FIVE)}, 0, lead.clone());
+		SingletonCardProperty winning = analyzer.GetWinningPropertyForPlay(lead.clone());
+
+		// Playing the ace takes the 25 points, the three gives them away.
+		Vector<Card[]> candidates = new Vector<Card[]>();
+		candidates.add(new Card[] {hand[1]});
+		candidates.add(new Card[] {hand[0]});
+		MonteCarloSearch search = new MonteCarloSearch(analyzer, myId, hand, dealer_group, 1);
+		search.SetCurrentRound(lead, 2, 3, 2, winning, 25);
+		assertSame(candidates.get(1), search.Pick(candidates, 16));
+		// Same with time to spare, and none at all.
+		assertSame(candidates.get(1), search.Pick(candidates, 16, System.nanoTime() + 10000000000L));
+		assertNull(search.Pick(candidates, 16, System.nanoTime()));
+	}
+
+	public void testAnalyzerCopy() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		int[] suit_spade = {1, 1, 2};
+		Card[] hand = CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE);
+		analyzer.AddCardsToMyHand(hand);
+		Card[] lead = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE)};
+		analyzer.PlayerPlayedCards(lead, 0, lead);
+		analyzer.PlayerPlayedCards(new Card[] {Card.of(Card.SUIT_CLUB, Card.NUMBER_FIVE)}, 2, lead);
+		AIDealAnalyzer copy = new AIDealAnalyzer(analyzer);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		assertTrue(Arrays.equals(analyzer.SugguestLeadingCardsRuleBased(myId, hand, dealer_group),
+				copy.SugguestLeadingCardsRuleBased(myId, hand, dealer_group)));
+		assertTrue(copy.per_player_cards[2].SuitInfo(Card.SUIT_SPADE) == CardOrganizer.VOID);
+		// Going on with the copy leaves the original alone.
+		Card[] follow = {Card.of(Card.SUIT_SPADE, Card.NUMBER_FOUR)};
+		copy.PlayerPlayedCards(follow, 3, lead);
+		assertTrue(copy.unknown_cards_pool.RemainingCardsInSuit(Card.SUIT_SPADE) ==
+				analyzer.unknown_cards_pool.RemainingCardsInSuit(Card.SUIT_SPADE) - 1);
+		assertTrue(copy.GetBelief().GetVersion() > analyzer.GetBelief().GetVersion());
+		assertTrue(copy.per_player_cards[3].NumCards(follow[0]) == 1);
+		assertTrue(analyzer.per_player_cards[3].NumCards(follow[0]) == 0);
+	}
+
+	public void testSugguestLeadingCardsDeadline() {
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		analyzer.setAIMode(AIDealAnalyzer.AI_MODE_MONTE_CARLO);
+		analyzer.setMonteCarloRollouts(8);
+		int[] suit_spade = {2};
+		int[] suit_club = {1, 0, 0, 1};
+		Card[] spades = CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE);
+		Card[] clubs = CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_SIX);
+		analyzer.AddCardsToMyHand(spades);
+		analyzer.AddCardsToMyHand(clubs);
+		Card[] hand = {spades[0], spades[1], clubs[0], clubs[1]};
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		// Out of time already: the rule based play, right away.
+		Card[] rule_based = analyzer.SugguestLeadingCardsRuleBased(myId, hand, dealer_group);
+		Card[] play = analyzer.SugguestLeadingCards(myId, hand, dealer_group, System.nanoTime());
+		assertTrue(Card.Contains(rule_based, play) && Card.Contains(play, rule_based));
+		// Plenty of time: few enough legal leads to try them all.
+		play = analyzer.SugguestLeadingCards(myId, hand, dealer_group, System.nanoTime() + 10000000000L);
+		int num_plays = 0;
+		boolean found = false;
+		for (LegalPlayIterator plays = analyzer.IterateLegalLeadingPlays(hand, null); plays.hasNext(); ++num_plays)
+			found |= CandidateSet.SameCards(plays.NextShared(), play);
+		assertTrue(num_plays <= AIDealAnalyzer.MAX_EXHAUSTIVE_CANDIDATES);
+		assertTrue(found);
+	}
+
+	public void testSugguestLeadingCardsWithinBudget() {
+		int[] suit_spade = {2, 0, 1, 1, 0, 2};
+		int[] suit_club = {1, 0, 0, 1, 1};
+		Card[] spades = CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE);
+		Card[] clubs = CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_SIX);
+		Vector<Card> all_cards = new Vector<Card>(Arrays.asList(spades));
+		all_cards.addAll(Arrays.asList(clubs));
+		Card[] hand = all_cards.toArray(new Card[0]);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		long budget = 300000000L;
+		int[] modes = {AIDealAnalyzer.AI_MODE_MONTE_CARLO, AIDealAnalyzer.AI_MODE_LEARNING};
+		for (int mode : modes) {
+			AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+			analyzer.setAIMode(mode);
+			analyzer.setLearner(new AILinearLearner());
+			// Far more rollouts than fit in the budget.
+			analyzer.setMonteCarloRollouts(100000);
+			analyzer.AddCardsToMyHand(hand);
+			Vector<Card[]> candidates = analyzer.SugguestLeadingCardsCandidates(myId, hand, dealer_group);
+			candidates.add(analyzer.SugguestLeadingCardsRuleBased(myId, hand, dealer_group));
+			// Comes back at all, and with one of the candidates, with time or without.
+			long[] deadlines = {System.nanoTime() + budget, System.nanoTime()};
+			for (long deadline : deadlines) {
+				Card[] play = analyzer.SugguestLeadingCards(myId, hand, dealer_group, deadline);
+				boolean found = false;
+				for (Card[] candidate : candidates)
+					found |= CandidateSet.SameCards(candidate, play);
+				assertTrue(found);
+			}
+		}
+		// Out of time in learning mode: the rule based play.
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		analyzer.setAIMode(AIDealAnalyzer.AI_MODE_LEARNING);
+		analyzer.setLearner(new AILinearLearner());
+		analyzer.AddCardsToMyHand(hand);
+		Card[] rule_based = analyzer.SugguestLeadingCardsRuleBased(myId, hand, dealer_group);
+		assertTrue(CandidateSet.SameCards(rule_based,
+				analyzer.SugguestLeadingCards(myId, hand, dealer_group, System.nanoTime())));
+	}
+
+	public void testSugguestLeadingCardsLearningParallel() {
+		AILinearLearner learner = new AILinearLearner();
+		AILearner snapshot = learner.snapshot();
+		assertSame(snapshot, learner.snapshot());
+		AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+		analyzer.setAIMode(AIDealAnalyzer.AI_MODE_LEARNING);
+		analyzer.setLearner(learner);
+		int[] suit_spade = {2, 0, 1};
+		int[] suit_club = {1, 0, 0, 1};
+		Card[] spades = CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE);
+		Card[] clubs = CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_SIX);
+		analyzer.AddCardsToMyHand(spades);
+		analyzer.AddCardsToMyHand(clubs);
+		Vector<Card> all_cards = new Vector<Card>(Arrays.asList(spades));
+		all_cards.addAll(Arrays.asList(clubs));
+		Card[] hand = all_cards.toArray(new Card[0]);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		Vector<Card[]> candidates = analyzer.SugguestLeadingCardsCandidates(myId, hand, dealer_group);
+		for (int i = 0; i < 2; ++i) {
+			analyzer.setParallelLearning(i == 0);
+			Card[] play = analyzer.SugguestLeadingCards(myId, hand, dealer_group);
+			boolean found = false;
+			for (Card[] candidate : candidates)
+				found |= Card.Contains(candidate, play) && Card.Contains(play, candidate);
+			assertTrue(found);
+		}
+		// Training changes the weights, the old snapshot stays as it was.
+		learner.observeAfterStateReward(new Vector<Integer>(), 0);
+		assertNotSame(snapshot, learner.snapshot());
+	}
+
+	public void testCandidateDeduplication() {
+		Card[] pair = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE), Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE)};
+		Card[] two = {Card.of(Card.SUIT_SPADE, Card.NUMBER_KING), Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE)};
+		Card[] two_reversed = {two[1], two[0]};
+		Card[] king = {two[0]};
+		CandidateSet set = new CandidateSet();
+		assertTrue(set.Add(pair));
+		assertTrue(set.Add(two));
+		assertFalse(set.Add(two_reversed));
+		assertFalse(set.Add(pair.clone()));
+		assertTrue(set.Add(king));
+		assertEquals(3, set.Size());
+		assertSame(pair, set.Get(0));
+		assertSame(two, set.Get(1));
+		assertSame(king, set.Get(2));
+		assertTrue(set.Contains(two_reversed));
+		assertFalse(set.Contains(new Card[] {pair[0]}));
+		assertEquals(CandidateSet.Hash(two), CandidateSet.Hash(two_reversed));
+		// A play that couldn't be filled up still gets compared.
+		assertTrue(set.Add(new Card[] {king[0], null}));
+		assertFalse(set.Add(new Card[] {null, king[0]}));
+
+		// Same seed, same hand: same candidates in the same order, and the same random play.
+		int[] suit_spade = {2, 0, 1, 1};
+		int[] suit_club = {1, 0, 0, 1, 2};
+		Card[] spades = CardPropertyTest.CreateCards(suit_spade, Card.SUIT_SPADE, Card.NUMBER_ACE);
+		Card[] clubs = CardPropertyTest.CreateCards(suit_club, Card.SUIT_CLUB, Card.NUMBER_SIX);
+		Vector<Card> all_cards = new Vector<Card>(Arrays.asList(spades));
+		all_cards.addAll(Arrays.asList(clubs));
+		Card[] hand = all_cards.toArray(new Card[0]);
+		Vector<Integer> dealer_group = new Vector<Integer>();
+		dealer_group.add(0);
+		dealer_group.add(2);
+		Vector<Card[]> plays = new Vector<Card[]>();
+		Vector<Vector<Card[]>> candidates = new Vector<Vector<Card[]>>();
+		for (int i = 0; i < 2; ++i) {
+			AIDealAnalyzer analyzer = new AIDealAnalyzer(trumpSuit, trumpNumber, numPlayers, numDecks, myId);
+			analyzer.AddCardsToMyHand(spades);
+			analyzer.AddCardsToMyHand(clubs);
+			analyzer.setAIMode(AIDealAnalyzer.AI_MODE_RANDOM);
+			analyzer.setRandomSeed(42);
+			candidates.add(analyzer.SugguestLeadingCardsCandidates(myId, hand, dealer_group));
+			plays.add(analyzer.SugguestLeadingCards(myId, hand, dealer_group));
+		}
+		assertEquals(candidates.get(0).size(), candidates.get(1).size());
+		for (int i = 0; i < candidates.get(0).size(); ++i) {
+			assertTrue(Arrays.equals(candidates.get(0).get(i), candidates.get(1).get(i)));
+			for (int j = 0; j < i; ++j)
+				assertFalse(CandidateSet.SameCards(candidates.get(0).get(i), candidates.get(0).get(j)));
+		}
+		assertTrue(Arrays.equals(plays.get(0), plays.get(1)));
+	}
+
+	public void testFeatureBuffer() {
+		FeatureBuffer buffer = new FeatureBuffer(1);
+		for (int i = 0; i < 5; ++i)
+			buffer.Add(i * i);
+		assertEquals(5, buffer.Size());
+		assertEquals(16, buffer.Get(4));
+		assertEquals("[0, 1, 4, 9, 16]", buffer.toString());
+		assertEquals(buffer.ToVector().toString(), buffer.toString());
+		buffer.Clear();
+		assertEquals(0, buffer.Size());
+
+		// The old Vector<Integer> calls give the same values, and leave the vector alone.
+		AILinearLearner learner = new AILinearLearner(2);
+		Random random = new Random(1);
+		for (int i = 0; i < 250; ++i) {
+			buffer.Clear();
+			for (int j = 0; j < 5; ++j)
+				buffer.Add(random.nextInt(4));
+			learner.observeAfterStateReward(buffer, buffer.Get(0) * 2 - buffer.Get(1));
+		}
+		learner.gameOver();
+		Vector<Integer> features = buffer.ToVector();
+		double value = learner.evaluateAfterState(buffer);
+		assertTrue(value != 0);
+		assertEquals(value, learner.evaluateAfterState(features), 1e-9);
+		assertEquals(5, features.size());
+		assertEquals(value, learner.snapshot().evaluateAfterState(buffer), 1e-9);
+		assertEquals(0.0, learner.evaluateAfterState((FeatureBuffer) null));
+		// Not the number of features the model learned from.
+		buffer.Add(1);
+		try {
+			learner.evaluateAfterState(buffer);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	public void testLinearLearnerEveryDeal() {
+		AILinearLearner learner = new AILinearLearner(1);
+		learner.setBatchSize(1);
+		AILinearLearner batch_learner = new AILinearLearner(1);
+		batch_learner.setBatchSize(300);
+		FeatureBuffer buffer = new FeatureBuffer();
+		Random random = new Random(2);
+		// One afterstate per deal, so its return is just its reward, and nothing runs on from
+		// one deal into the next.
+		for (int i = 0; i < 300; ++i) {
+			buffer.Clear();
+			buffer.Add(random.nextInt(10));
+			buffer.Add(random.nextInt(10));
+			double reward = 3 * buffer.Get(0) - 2 * buffer.Get(1) + 5;
+			learner.observeAfterStateReward(buffer, reward);
+			learner.gameOver();
+			batch_learner.observeAfterStateReward(buffer, reward);
+			batch_learner.gameOver();
+			if (i == 0)
+				assertTrue(learner.evaluateAfterState(buffer) != 0);
+			if (i < 299)
+				assertEquals(0.0, batch_learner.evaluateAfterState(buffer));
+		}
+		buffer.Clear();
+		buffer.Add(7);
+		buffer.Add(2);
+		// Same weights either way, off a bit because of the l2 regularization.
+		double value = learner.evaluateAfterState(buffer);
+		assertEquals(value, batch_learner.evaluateAfterState(buffer), 1e-6);
+		assertEquals(value, learner.snapshot().evaluateAfterState(buffer), 1e-9);
+		assertEquals(22, value, 1);
+	}
+
+	public void testOnlineLearner() {
+		AIOnlineLearner learner = new AIOnlineLearner(1);
+		FeatureBuffer buffer = new FeatureBuffer();
+		Random random = new Random(3);
+		for (int i = 0; i < 300; ++i) {
+			// Two afterstates a deal, the first one is worth its reward plus half of the second's.
+			buffer.Clear();
+			buffer.Add(random.nextInt(10));
+			buffer.Add(0);
+			buffer.Add(1);
+			learner.observeAfterStateReward(buffer, buffer.Get(0));
+			assertEquals(i == 0, learner.evaluateAfterState(buffer) == 0);
+			buffer.Clear();
+			buffer.Add(0);
+			buffer.Add(random.nextInt(10));
+			buffer.Add(0);
+			learner.observeAfterStateReward(buffer, buffer.Get(1) * 2);
+			learner.gameOver();
+		}
+		buffer.Clear();
+		buffer.Add(0);
+		buffer.Add(4);
+		buffer.Add(0);
+		assertEquals(8, learner.evaluateAfterState(buffer), 0.1);
+		assertEquals(learner.evaluateAfterState(buffer), learner.snapshot().evaluateAfterState(buffer), 1e-9);
+		// 1 plus half of what the second afterstate is worth on average, 4.5 * 2.
+		buffer.Clear();
+		buffer.Add(1);
+		buffer.Add(0);
+		buffer.Add(1);
+		assertEquals(5.5, learner.evaluateAfterState(buffer), 0.5);
+	}
+
+	public void testOnlineLearnerThreads() throws InterruptedException {
+		final FeatureBuffer[] deal = new FeatureBuffer[3];
+		for (int i = 0; i < deal.length; ++i) {
+			deal[i] = new FeatureBuffer();
+			deal[i].Add(i + 1);
+			deal[i].Add(2 - i);
+		}
+		// Player 0 is half way through deal[0], deal[1] when player 1 plays all of deal[2].
+		final AIOnlineLearner shared = new AIOnlineLearner(1);
+		shared.observeAfterStateReward(deal[0], 1);
+		Thread other = new Thread() {
+			public void run() {
+				shared.observeAfterStateReward(deal[2], 3);
+				shared.gameOver();
+			}
+		};
+		other.start();
+		other.join();
+		shared.observeAfterStateReward(deal[1], 2);
+		shared.gameOver();
+		// Same as the two deals one after the other.
+		AIOnlineLearner separate = new AIOnlineLearner(1);
+		separate.observeAfterStateReward(deal[2], 3);
+		separate.gameOver();
+		separate.observeAfterStateReward(deal[0], 1);
+		separate.observeAfterStateReward(deal[1], 2);
+		separate.gameOver();
+		for (FeatureBuffer afterstate : deal)
+			assertEquals(separate.evaluateAfterState(afterstate), shared.evaluateAfterState(afterstate), 1e-9);
+	}
+
+	public void testAfterStateTable() {
+		FeatureBuffer buffer = new FeatureBuffer();
+		buffer.Add(3);
+		buffer.Add(1);
+		long key = AfterStateTable.Hash(buffer);
+		assertEquals(key, AfterStateTable.Hash(FeatureBuffer.FromVector(buffer.ToVector())));
+		buffer.Add(0);
+		assertTrue(key != AfterStateTable.Hash(buffer));
+
+		AfterStateTable table = new AfterStateTable(8);
+		assertEquals(0.0, table.Get(key));
+		assertEquals(0.0, table.Get(AfterStateTable.NO_KEY));
+		table.Observe(key, 4, 0.5);
+		table.Observe(key, 2, 0.5);
+		// sum 0.5 * 4 + 2, count 0.5 * 1 + 1
+		assertEquals(4.0 / 1.5, table.Get(key), 1e-9);
+		// Afterstates seen once make room for each other, the one seen all the time stays.
+		for (int i = 0; i < 1000; ++i) {
+			buffer.Clear();
+			buffer.Add(i);
+			table.Observe(AfterStateTable.Hash(buffer), i, 0.01);
+			table.Observe(key, 4.0 / 1.5, 0.01);
+			assertTrue(table.Size() <= 8);
+			assertTrue(table.Contains(AfterStateTable.Hash(buffer)));
+		}
+		assertEquals(8, table.Size());
+		assertEquals(4.0 / 1.5, table.Get(key), 1e-9);
+		buffer.Clear();
+		buffer.Add(999);
+		assertEquals(999.0, table.Get(AfterStateTable.Hash(buffer)));
+
+		int[] bad_capacities = {0, -1, Integer.MAX_VALUE};
+		for (int capacity : bad_capacities) {
+			try {
+				new AfterStateTable(capacity);
+				fail("capacity " + capacity);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+
+	public void testSharedLearner() throws InterruptedException {
+		final int num_threads = 8;
+		final int num_deals = 40;
+		AILinearLearner learner = new AILinearLearner(1);
+		learner.setBatchSize(1);
+		final AISharedLearner shared = new AISharedLearner(learner);
+		assertEquals(0.0, shared.evaluateAfterState(FeatureBuffer.FromVector(new Vector<Integer>(Arrays.asList(1, 2)))));
+		Thread[] threads = new Thread[num_threads];
+		for (int t = 0; t < num_threads; ++t) {
+			final int seed = t;
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					PlayDeals(shared, seed, num_deals);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		shared.Flush();
+
+		// Least squares doesn't care about the order the deals come in.
+		AILinearLearner serial = new AILinearLearner(1);
+		serial.setBatchSize(1);
+		for (int t = 0; t < num_threads; ++t)
+			PlayDeals(serial, t, num_deals);
+		FeatureBuffer buffer = new FeatureBuffer();
+		buffer.Add(7);
+		buffer.Add(2);
+		double value = serial.evaluateAfterState(buffer);
+		assertTrue(value != 0);
+		assertEquals(value, shared.evaluateAfterState(buffer), 1e-6);
+		assertEquals(value, shared.snapshot().evaluateAfterState(buffer), 1e-6);
+
+		// The terminal state is skipped, the wrapped learner never sees it.
+		shared.observeAfterStateReward((FeatureBuffer) null, 5);
+		shared.gameOver();
+		shared.Flush();
+		assertEquals(value, shared.evaluateAfterState(buffer), 1e-6);
+
+		// Nothing learned with learning off.
+		shared.enableLearning(false);
+		PlayDeals(shared, num_threads, num_deals);
+		shared.Flush();
+		assertEquals(value, shared.evaluateAfterState(buffer), 1e-6);
+
+		// A learner that fails is reported, not hidden.
+		AISharedLearner failing = new AISharedLearner(new AILearner() {
+			@Override
+			public void gameOver() {
+				throw new IllegalStateException("broken learner");
+			}
+		});
+		PlayDeals(failing, 0, 1);
+		try {
+			failing.Flush();
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("broken learner", e.getCause().getMessage());
+		}
+	}
+
+	private static void PlayDeals(AILearner learner, int seed, int num_deals) {
+		Random random = new Random(seed);
+		FeatureBuffer buffer = new FeatureBuffer();
+		for (int i = 0; i < num_deals; ++i) {
+			for (int j = 0; j < 3; ++j) {
+				buffer.Clear();
+				buffer.Add(random.nextInt(10));
+				buffer.Add(random.nextInt(10));
+				learner.observeAfterStateReward(buffer, buffer.Get(0) - buffer.Get(1));
+			}
+			learner.gameOver();
+		}
+	}
+}
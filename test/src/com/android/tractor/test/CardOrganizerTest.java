@@ -1,130 +1,230 @@
-package com.android.tractor.test;
-
-import java.util.Arrays;
-import java.util.Vector;
-
-import com.android.tractor.Card;
-import com.android.tractor.CardAnalyzer;
-import com.android.tractor.CardOrganizer;
-import com.android.tractor.SingletonCardProperty;
-
-import junit.framework.TestCase;
-
-public class CardOrganizerTest extends TestCase {
-	int trumpSuit = Card.SUIT_HEART;
-	int trumpNumber = Card.NUMBER_TEN;
-	int numPlayers = 4;
-	int numDecks = 6;
-	CardAnalyzer analyzer = new CardAnalyzer(trumpSuit, trumpNumber, numDecks, numPlayers);
-
-	
-	public void testAddCards() {
-		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
-		int[] num_cards = {1, 0, 2, 2};
-		Card[] card_part1 = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
-		int[] num_cards2 = {1, 0, 2, 2, 1};
-		Card[] card_part2 = CardPropertyTest.CreateCards(num_cards2, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
-		Card[] all_cards = new Card[card_part1.length + card_part2.length];
-		System.arraycopy(card_part1, 0, all_cards, 0, card_part1.length);
-		System.arraycopy(card_part2, 0, all_cards, card_part1.length, card_part2.length);
-		Card.Shuffle(all_cards);
-		organizer.AddCards(all_cards, null);
-		Card[] card_suit1 = organizer.GetSuit(Card.SUIT_SPADE).toArray(new Card[0]);
-		assertTrue(card_suit1.length == 3);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_QUEEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_NINE, Card.SUIT_SPADE);  // We added T of spade, that's trump, shouldn't appear in spade.
-		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_NINE, Card.SUIT_SPADE);
-		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
-		assertTrue(card_suit1.length == 2);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		card_suit1 = organizer.GetSuit(Card.SUIT_DIAMOND).toArray(new Card[0]);  // trump suit
-		assertTrue(card_suit1.length == 6);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[4], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[5], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
-		int[] num_cards3 = {2, 2, 3, 1};
-		organizer.AddCards(CardPropertyTest.CreateCards(num_cards3, Card.SUIT_CLUB, Card.NUMBER_JACK), null);
-		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
-		assertTrue(card_suit1.length == 4);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		int[] num_cards4 = {1, 0, 1, 0, 0, 0, 1};
-		organizer.AddCards(CardPropertyTest.CreateCards(num_cards4, Card.SUIT_HEART, Card.NUMBER_NO_GUARANTEE), null);
-		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
-		assertTrue(card_suit1.length == 7);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_HEART);
-		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_TEN, Card.SUIT_SPADE);
-		CardAnalyzerTest.CheckCard(card_suit1[4], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(card_suit1[5], Card.NUMBER_TEN, Card.SUIT_CLUB);
-		CardAnalyzerTest.CheckCard(card_suit1[6], Card.NUMBER_ACE, Card.SUIT_HEART);
-		card_suit1 = organizer.GetSuit(Card.SUIT_NO_TRUMP).toArray(new Card[0]);
-		assertTrue(card_suit1.length == 0);
-	}
-
-	public void testDeleteCards() {
-		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
-		int[] num_cards = {1, 0, 2, 2};
-		Card[] card_part1 = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
-		organizer.AddCards(card_part1, null);
-		int[] num_cards2 = {1, 0, 2, 2, 1};
-		card_part1 = CardPropertyTest.CreateCards(num_cards2, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
-		organizer.AddCards(card_part1, null);
-		int[] num_cards3 = {1, 0, 1, 0, 1};
-		card_part1 = CardPropertyTest.CreateCards(num_cards3, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
-		organizer.DeleteCards(card_part1);
-		Card[] card_suit1 = organizer.GetSuit(Card.SUIT_DIAMOND).toArray(new Card[0]); 
-		assertTrue(card_suit1.length == 3);
-		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
-		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
-	}
-	
-	public void testIsPropertyAvailableInSuit() {
-		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
-		int[] num_play_cards = {2};
-		int[] lead_cards = {3};
-		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
-				CardPropertyTest.CreateCards(lead_cards, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
-		SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(3, 1);
-		Vector<SingletonCardProperty> possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 4, 1, 4);
-		p = SingletonCardProperty.CreatePropertyOfType(3, 2);
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 4, 2, 8);
-		int[] num_play_cards_2 = {2, 2};
-		int[] lead_cards_2 = {4};
-		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards_2, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
-				CardPropertyTest.CreateCards(lead_cards_2, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 5, 2, 10);
-		p = SingletonCardProperty.CreatePropertyOfType(2, 1);
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 2, 1, 2);
-		int[] num_play_cards_3 = {3, 2};
-		int[] lead_cards_3 = {5};
-		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards_3, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
-				CardPropertyTest.CreateCards(lead_cards_3, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 2, 1, 2);
-		p = SingletonCardProperty.CreatePropertyOfType(3, 2);
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 5, 2, 10);
-		p = SingletonCardProperty.CreatePropertyOfType(1, 1);
-		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
-		assertTrue(possible_properties.size() == 1);
-	}
-}
+package com.android.tractor.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Vector;
+
+import com.android.tractor.Card;
+import com.android.tractor.CardAnalyzer;
+import com.android.tractor.CardOrganizer;
+import com.android.tractor.CardProperty;
+import com.android.tractor.DealOrdering;
+import com.android.tractor.PerDealCardComparator;
+import com.android.tractor.SingletonCardProperty;
+
+import junit.framework.TestCase;
+
+public class CardOrganizerTest extends TestCase {
+	int trumpSuit = Card.SUIT_HEART;
+	int trumpNumber = Card.NUMBER_TEN;
+	int numPlayers = 4;
+	int numDecks = 6;
+	CardAnalyzer analyzer = new CardAnalyzer(trumpSuit, trumpNumber, numDecks, numPlayers);
+
+	
+	public void testAddCards() {
+		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
+		int[] num_cards = {1, 0, 2, 2};
+		Card[] card_part1 = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
+		int[] num_cards2 = {1, 0, 2, 2, 1};
+		Card[] card_part2 = CardPropertyTest.CreateCards(num_cards2, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
+		Card[] all_cards = new Card[card_part1.length + card_part2.length];
+		System.arraycopy(card_part1, 0, all_cards, 0, card_part1.length);
+		System.arraycopy(card_part2, 0, all_cards, card_part1.length, card_part2.length);
+		Card.Shuffle(all_cards);
+		organizer.AddCards(all_cards, null);
+		Card[] card_suit1 = organizer.GetSuit(Card.SUIT_SPADE).toArray(new Card[0]);
+		assertTrue(card_suit1.length == 3);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_QUEEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_NINE, Card.SUIT_SPADE);  // We added T of spade, that's trump, shouldn't appear in spade.
+		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_NINE, Card.SUIT_SPADE);
+		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
+		assertTrue(card_suit1.length == 2);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		card_suit1 = organizer.GetSuit(Card.SUIT_DIAMOND).toArray(new Card[0]);  // trump suit
+		assertTrue(card_suit1.length == 6);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_SEVEN, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[4], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[5], Card.NUMBER_THREE, Card.SUIT_DIAMOND);
+		int[] num_cards3 = {2, 2, 3, 1};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_cards3, Card.SUIT_CLUB, Card.NUMBER_JACK), null);
+		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
+		assertTrue(card_suit1.length == 4);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		int[] num_cards4 = {1, 0, 1, 0, 0, 0, 1};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_cards4, Card.SUIT_HEART, Card.NUMBER_NO_GUARANTEE), null);
+		card_suit1 = organizer.GetSuit(Card.SUIT_HEART).toArray(new Card[0]);  // trump suit
+		assertTrue(card_suit1.length == 7);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_TEN, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[3], Card.NUMBER_TEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit1[4], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(card_suit1[5], Card.NUMBER_TEN, Card.SUIT_CLUB);
+		CardAnalyzerTest.CheckCard(card_suit1[6], Card.NUMBER_ACE, Card.SUIT_HEART);
+		card_suit1 = organizer.GetSuit(Card.SUIT_NO_TRUMP).toArray(new Card[0]);
+		assertTrue(card_suit1.length == 0);
+	}
+
+	public void testDeleteCards() {
+		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
+		int[] num_cards = {1, 0, 2, 2};
+		Card[] card_part1 = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
+		organizer.AddCards(card_part1, null);
+		int[] num_cards2 = {1, 0, 2, 2, 1};
+		card_part1 = CardPropertyTest.CreateCards(num_cards2, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
+		organizer.AddCards(card_part1, null);
+		int[] num_cards3 = {1, 0, 1, 0, 1};
+		card_part1 = CardPropertyTest.CreateCards(num_cards3, Card.SUIT_DIAMOND, Card.NUMBER_SEVEN);
+		organizer.DeleteCards(card_part1);
+		Card[] card_suit1 = organizer.GetSuit(Card.SUIT_DIAMOND).toArray(new Card[0]); 
+		assertTrue(card_suit1.length == 3);
+		CardAnalyzerTest.CheckCard(card_suit1[0], Card.NUMBER_FIVE, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[1], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
+		CardAnalyzerTest.CheckCard(card_suit1[2], Card.NUMBER_FOUR, Card.SUIT_DIAMOND);
+	}
+	
+	public void testCardCounts() {
+		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
+		int[] num_cards = {1, 0, 2, 2};
+		Card[] cards = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
+		organizer.AddCards(cards, null);
+		// The two tens of spade go to the trump suit.
+		assertTrue(organizer.CardsInSuit(Card.SUIT_SPADE) == 3);
+		assertTrue(organizer.CardsInSuit(Card.SUIT_HEART) == 2);
+		assertTrue(organizer.NumCards(new Card(Card.SUIT_SPADE, Card.NUMBER_NINE)) == 2);
+		assertTrue(organizer.NumCards(new Card(Card.SUIT_SPADE, Card.NUMBER_JACK)) == 0);
+		assertTrue(organizer.ContainsCards(cards));
+		Card[] too_many = {new Card(Card.SUIT_SPADE, Card.NUMBER_QUEEN), new Card(Card.SUIT_SPADE, Card.NUMBER_QUEEN)};
+		assertFalse(organizer.ContainsCards(too_many));
+		// ContainsCards should not alter the counts.
+		assertTrue(organizer.NumCards(too_many[0]) == 1);
+		Card[] nines = {new Card(Card.SUIT_SPADE, Card.NUMBER_NINE)};
+		organizer.DeleteCards(nines);
+		assertTrue(organizer.CardsInSuit(Card.SUIT_SPADE) == 2);
+		assertTrue(organizer.getAllCards().length == 4);
+		Card[] card_suit = organizer.GetSuit(Card.SUIT_SPADE).toArray(new Card[0]);
+		CardAnalyzerTest.CheckCard(card_suit[0], Card.NUMBER_QUEEN, Card.SUIT_SPADE);
+		CardAnalyzerTest.CheckCard(card_suit[1], Card.NUMBER_NINE, Card.SUIT_SPADE);
+	}
+	
+	public void testSuitPropertyCache() {
+		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
+		int[] num_cards = {2, 2, 0, 3, 0, 1};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_ACE), null);
+		CardProperty property = organizer.GetSuitProperty(Card.SUIT_SPADE);
+		assertTrue(property.properties.size() == 3);
+		assertTrue(organizer.GetSuitProperty(Card.SUIT_SPADE) == property);
+		// Deleting a whole property that doesn't overlap anything derives the new one without
+		// recomputing, and leaves the one handed out alone.
+		Card[] jacks = {Card.of(Card.SUIT_SPADE, Card.NUMBER_JACK), Card.of(Card.SUIT_SPADE, Card.NUMBER_JACK),
+				Card.of(Card.SUIT_SPADE, Card.NUMBER_JACK)};
+		organizer.DeleteCards(jacks);
+		CardProperty updated = organizer.GetSuitProperty(Card.SUIT_SPADE);
+		assertTrue(updated != property);
+		assertTrue(property.properties.size() == 3);
+		assertTrue(property.total_num_cards == 8);
+		assertTrue(updated.properties.size() == 2);
+		assertTrue(updated.total_num_cards == 5);
+		for (SingletonCardProperty p : updated.properties)
+			assertTrue(p.num_identical_cards * p.num_sequences == p.num_cards && p.leading_number != SingletonCardProperty.JACK);
+		// Breaking up a tractor needs a recompute.
+		Card[] ace = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE)};
+		organizer.DeleteCards(ace);
+		CardProperty new_property = organizer.GetSuitProperty(Card.SUIT_SPADE);
+		assertTrue(new_property != updated);
+		assertTrue(new_property.properties.size() == 3);
+		assertTrue(new_property.total_num_cards == 4);
+		// Other suits are unaffected.
+		assertTrue(organizer.GetSuitProperty(Card.SUIT_CLUB).properties.size() == 0);
+	}
+
+	public void testSeparateIntoSameSuit() {
+		DealOrdering ordering = DealOrdering.Get(trumpSuit, trumpNumber);
+		Card[] deck = new Card[Card.CARDS_PER_DECK];
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i) {
+			deck[i] = Card.of(i);
+			assertTrue(deck[i].CalculatePlaySuit(ordering) == deck[i].CalculatePlaySuit(trumpSuit, trumpNumber));
+		}
+		Card.Shuffle(deck);
+		Vector<Card[]> suits = CardOrganizer.SeparateIntoSameSuit(deck, trumpSuit, trumpNumber);
+		// Trump suit first: 2 jokers, 4 tens, and 12 other hearts.
+		assertTrue(suits.size() == 4);
+		assertTrue(suits.get(0).length == 18);
+		CardAnalyzerTest.CheckCard(suits.get(0)[0], Card.NUMBER_NO_GUARANTEE, Card.SUIT_NO_TRUMP);
+		CardAnalyzerTest.CheckCard(suits.get(0)[2], Card.NUMBER_TEN, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(suits.get(0)[6], Card.NUMBER_ACE, Card.SUIT_HEART);
+		CardAnalyzerTest.CheckCard(suits.get(1)[0], Card.NUMBER_ACE, Card.SUIT_SPADE);
+		PerDealCardComparator comparator = new PerDealCardComparator(trumpSuit, trumpNumber);
+		for (int i = 1; i < deck.length; ++i)
+			assertTrue(comparator.compare(deck[i - 1], deck[i]) < 0);
+		// Before trump is declared the ordering is shared as well.
+		DealOrdering undeclared = DealOrdering.Get(Card.SUIT_UNDEFINED, trumpNumber);
+		assertTrue(undeclared == DealOrdering.Get(Card.SUIT_UNDEFINED, trumpNumber));
+		for (int i = 0; i < Card.CARDS_PER_DECK; ++i)
+			assertTrue(undeclared.PlaySuit(i) == Card.of(i).CalculatePlaySuit(Card.SUIT_UNDEFINED, trumpNumber));
+	}
+
+	public void testCardSerializationInterned() throws Exception {
+		Card[] cards = {Card.of(Card.SUIT_SPADE, Card.NUMBER_ACE), Card.of(Card.SUIT_NO_TRUMP, Card.NUMBER_GUARANTEE)};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(cards);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Card[] read = (Card[]) in.readObject();
+		assertTrue(read[0] == cards[0]);
+		assertTrue(read[1] == cards[1]);
+	}
+
+	public void testIsPropertyAvailableInSuit() {
+		CardOrganizer organizer = new CardOrganizer(trumpSuit, trumpNumber, analyzer);
+		int[] num_play_cards = {2};
+		int[] lead_cards = {3};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
+				CardPropertyTest.CreateCards(lead_cards, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
+		SingletonCardProperty p = SingletonCardProperty.CreatePropertyOfType(3, 1);
+		Vector<SingletonCardProperty> possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 4, 1, 4);
+		p = SingletonCardProperty.CreatePropertyOfType(3, 2);
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 4, 2, 8);
+		int[] num_play_cards_2 = {2, 2};
+		int[] lead_cards_2 = {4};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards_2, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
+				CardPropertyTest.CreateCards(lead_cards_2, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 5, 2, 10);
+		p = SingletonCardProperty.CreatePropertyOfType(2, 1);
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 2, 1, 2);
+		int[] num_play_cards_3 = {3, 2};
+		int[] lead_cards_3 = {5};
+		organizer.AddCards(CardPropertyTest.CreateCards(num_play_cards_3, Card.SUIT_DIAMOND, Card.NUMBER_ACE),
+				CardPropertyTest.CreateCards(lead_cards_3, Card.SUIT_DIAMOND, Card.NUMBER_EIGHT));
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 2, 1, 2);
+		p = SingletonCardProperty.CreatePropertyOfType(3, 2);
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+		CardPropertyTest.CheckCardProperty(possible_properties.get(0), -1, 5, 2, 10);
+		p = SingletonCardProperty.CreatePropertyOfType(1, 1);
+		possible_properties = organizer.IsPropertyAvailableInSuit(p, Card.SUIT_DIAMOND);
+		assertTrue(possible_properties.size() == 1);
+	}
+}
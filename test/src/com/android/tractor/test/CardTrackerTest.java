@@ -1,181 +1,321 @@
-package com.android.tractor.test;
-
-import java.util.Collections;
-import java.util.Vector;
-
-import com.android.tractor.Card;
-import com.android.tractor.CardProperty;
-import com.android.tractor.CardTracker;
-import com.android.tractor.SingletonCardProperty;
-
-import junit.framework.TestCase;
-
-public class CardTrackerTest extends TestCase {
-	// tolerance for float point error
-	private static final double EPSILON = 1e-9;
-
-	public void testCurrentPropretyProbability() {
-		int trumpSuit = Card.SUIT_HEART;
-		int trumpNumber = Card.NUMBER_TEN;
-		int numDecks = 2;
-		int num_other_players = 3;
-
-		CardTracker deck = new CardTracker(trumpSuit, trumpNumber, numDecks);
-		// First test, AKKJJ, A KK should both be good.  JJ, QQ can beat it, and there are 1/3 of the chance
-		// that the rest of the three players have a pair QQ.
-		Vector<Integer> num_array = new Vector<Integer>();
-		num_array.add(1);
-		num_array.add(2);
-		num_array.add(0);
-		num_array.add(2);
-		Card[] my_hand = CardPropertyTest.CreateCards(num_array, Card.SUIT_DIAMOND, Card.NUMBER_ACE);
-		deck.DeleteCards(my_hand);
-		CardProperty property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
-			switch (p.leading_number) {
-			case Card.NUMBER_ACE:
-				assertEquals(probability, 1.0);
-				break;
-			case Card.NUMBER_KING:
-				assertEquals(probability, 1.0);
-				break;
-			case Card.NUMBER_JACK:
-				assertEquals((double) 2/3, probability, EPSILON);
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		// Now I'm curious, what about say K5544? :).  I know about K, but 5544?
-		num_array.clear();
-		num_array.add(1);
-		for (int i = 0; i < 7; i++)
-			num_array.add(0);
-		for (int i = 0; i < 2; i++)
-			num_array.add(2);
-		my_hand = CardPropertyTest.CreateCards(num_array, Card.SUIT_CLUB, Card.NUMBER_KING);
-		deck.DeleteCards(my_hand);
-		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
-			switch (p.leading_number) {
-			case Card.NUMBER_KING:
-				assertEquals(0.0, probability);
-				break;
-			case Card.NUMBER_FIVE:
-				assertEquals(probability, 0.8280335219957866, EPSILON);  // Not bad.
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		// Now how about adding a few more cards? say a 9 and a 7.  Now only QQJJ can beat the current
-		// hand.  T is the trump number.  It used to be (QQJJ, JJ99, 9988, 8877, 7766).
-		num_array.clear();
-		num_array.add(1);
-		num_array.add(0);
-		num_array.add(1);
-		deck.DeleteCards(CardPropertyTest.CreateCards(num_array, Card.SUIT_CLUB, Card.NUMBER_NINE));
-		for (SingletonCardProperty p: property.properties) {
-			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
-			switch (p.leading_number) {
-			case Card.NUMBER_KING:
-				assertTrue(probability == 0.0);
-				break;
-			case Card.NUMBER_FIVE:
-				assertEquals(probability, 0.9629629629629629, EPSILON);  // Much better.
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		// Now deal with trump suit, sigh, the MINOR_TRUMP_NUMBER.  In this case, we'll have the following probabilities:
-		// BJ-BJ-SJ-SJ SJ-SJ-3-3 3-3-3-3 3-3-3-3, 3-3-A-A  3-3-A-A (we expired a pair of MINOR 3's, and we didn't expire A).
-		num_array.clear();
-		num_array.add(1);
-		deck.DeleteCards(CardPropertyTest.CreateCards(num_array, Card.SUIT_DIAMOND, Card.NUMBER_TEN));
-		SingletonCardProperty new_property = new SingletonCardProperty(new Card(Card.SUIT_HEART, Card.NUMBER_ACE),
-				trumpSuit, trumpNumber);
-		new_property.num_identical_cards = 2;
-		new_property.num_sequences = 2;
-		new_property.num_cards = 4;
-		new_property.is_consecutive = true;
-		double probability = deck.CurrentPropertyProbability(new_property, num_other_players, false);
-		assertEquals(probability, 0.7973656137737204, EPSILON);
-		
-		// Here is the probability of a consecutive pair, without any other card's support.
-		deck = new CardTracker(trumpSuit, trumpNumber, 3);
-		int[] num_cards = {2,2};
-		my_hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_DIAMOND, Card.NUMBER_THREE);
-		deck.DeleteCards(my_hand);
-		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			probability = deck.CurrentPropertyProbability(p, 5, false);
-			switch (p.leading_number) {
-			case Card.NUMBER_THREE:
-				assertEquals(probability, 0.521729561129189, EPSILON);
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		
-		//  Now compare triples with 2-2-2's, for a 4 player game.
-		int[] num_cards_2 = {3, 0, 0, 0, 0, 0, 2, 2, 2};
-		my_hand = CardPropertyTest.CreateCards(num_cards_2, trumpSuit, Card.NUMBER_GUARANTEE);
-		deck.DeleteCards(my_hand);
-		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			probability = deck.CurrentPropertyProbability(p, 3, false);
-			switch (p.leading_number) {
-			case SingletonCardProperty.SMALL_JOKER:
-				assertEquals(probability, 0.8888888888888888, EPSILON);
-				break;
-			case Card.NUMBER_NINE:
-				assertEquals(probability, 0.41035899217694916, EPSILON);
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		// Now compare in the non-trump suit.  So with the help of lots of MINOR_TRUMP_NUMBER, consecutive
-		// one have much lower probability in trumps.
-		int[] num_cards_3 = {3, 0, 0, 0, 0, 0, 2, 2, 2};
-		my_hand = CardPropertyTest.CreateCards(num_cards_3, Card.SUIT_SPADE, Card.NUMBER_KING);
-		deck.DeleteCards(my_hand);
-		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			probability = deck.CurrentPropertyProbability(p, 3, false);
-			switch (p.leading_number) {
-			case Card.NUMBER_KING:
-				assertEquals(probability, 0.8888888888888888, EPSILON);
-				break;
-			case Card.NUMBER_SEVEN:
-				assertEquals(probability, 0.8003703444039424, EPSILON);
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-		
-		deck = new CardTracker(trumpSuit, trumpNumber, 3);
-		int[] num_cards_4 = {1, 2};
-		my_hand = CardPropertyTest.CreateCards(num_cards_4, Card.SUIT_HEART, Card.NUMBER_NO_GUARANTEE);
-		deck.DeleteCards(my_hand);
-		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
-		for (SingletonCardProperty p: property.properties) {
-			probability = deck.CurrentPropertyProbability(p, 3, false);
-			switch (p.leading_number) {
-			case SingletonCardProperty.BIG_JOKER:
-				assertTrue(probability == 1.0);
-				break;
-			case SingletonCardProperty.SMALL_JOKER:
-				assertEquals(probability, 0.6666666666666666, EPSILON);
-				break;
-			default:
-				assertFalse(true);
-			}
-		}
-	}
-}
+package com.android.tractor.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Vector;
+
+import com.android.tractor.Card;
+import com.android.tractor.CardBelief;
+import com.android.tractor.CardProperty;
+import com.android.tractor.CardTracker;
+import com.android.tractor.DealOrdering;
+import com.android.tractor.SingletonCardProperty;
+import com.android.tractor.SingletonCardPropertyProbability;
+import com.android.tractor.SuitDistribution;
+
+import junit.framework.TestCase;
+
+public class CardTrackerTest extends TestCase {
+	// tolerance for float point error
+	private static final double EPSILON = 1e-9;
+
+	public void testCurrentPropretyProbability() {
+		int trumpSuit = Card.SUIT_HEART;
+		int trumpNumber = Card.NUMBER_TEN;
+		int numDecks = 2;
+		int num_other_players = 3;
+
+		CardTracker deck = new CardTracker(trumpSuit, trumpNumber, numDecks);
+		// First test, AKKJJ, A KK should both be good.  JJ, QQ can beat it, and there are 1/3 of the chance
+		// that the rest of the three players have a pair QQ.
+		Vector<Integer> num_array = new Vector<Integer>();
+		num_array.add(1);
+		num_array.add(2);
+		num_array.add(0);
+		num_array.add(2);
+		Card[] my_hand = CardPropertyTest.CreateCards(num_array, Card.SUIT_DIAMOND, Card.NUMBER_ACE);
+		deck.DeleteCards(my_hand);
+		CardProperty property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
+			switch (p.leading_number) {
+			case Card.NUMBER_ACE:
+				assertEquals(probability, 1.0);
+				break;
+			case Card.NUMBER_KING:
+				assertEquals(probability, 1.0);
+				break;
+			case Card.NUMBER_JACK:
+				assertEquals((double) 2/3, probability, EPSILON);
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		// Now I'm curious, what about say K5544? :).  I know about K, but 5544?
+		num_array.clear();
+		num_array.add(1);
+		for (int i = 0; i < 7; i++)
+			num_array.add(0);
+		for (int i = 0; i < 2; i++)
+			num_array.add(2);
+		my_hand = CardPropertyTest.CreateCards(num_array, Card.SUIT_CLUB, Card.NUMBER_KING);
+		deck.DeleteCards(my_hand);
+		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
+			switch (p.leading_number) {
+			case Card.NUMBER_KING:
+				assertEquals(0.0, probability);
+				break;
+			case Card.NUMBER_FIVE:
+				assertEquals(probability, 0.8280335219957866, EPSILON);  // Not bad.
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		// Now how about adding a few more cards? say a 9 and a 7.  Now only QQJJ can beat the current
+		// hand.  T is the trump number.  It used to be (QQJJ, JJ99, 9988, 8877, 7766).
+		num_array.clear();
+		num_array.add(1);
+		num_array.add(0);
+		num_array.add(1);
+		deck.DeleteCards(CardPropertyTest.CreateCards(num_array, Card.SUIT_CLUB, Card.NUMBER_NINE));
+		for (SingletonCardProperty p: property.properties) {
+			double probability = deck.CurrentPropertyProbability(p, num_other_players, false);
+			switch (p.leading_number) {
+			case Card.NUMBER_KING:
+				assertTrue(probability == 0.0);
+				break;
+			case Card.NUMBER_FIVE:
+				assertEquals(probability, 0.9629629629629629, EPSILON);  // Much better.
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		// Now deal with trump suit, sigh, the MINOR_TRUMP_NUMBER.  In this case, we'll have the following probabilities:
+		// BJ-BJ-SJ-SJ SJ-SJ-3-3 3-3-3-3 3-3-3-3, 3-3-A-A  3-3-A-A (we expired a pair of MINOR 3's, and we didn't expire A).
+		num_array.clear();
+		num_array.add(1);
+		deck.DeleteCards(CardPropertyTest.CreateCards(num_array, Card.SUIT_DIAMOND, Card.NUMBER_TEN));
+		SingletonCardProperty new_property = new SingletonCardProperty(new Card(Card.SUIT_HEART, Card.NUMBER_ACE),
+				trumpSuit, trumpNumber);
+		new_property.num_identical_cards = 2;
+		new_property.num_sequences = 2;
+		new_property.num_cards = 4;
+		new_property.is_consecutive = true;
+		double probability = deck.CurrentPropertyProbability(new_property, num_other_players, false);
+		assertEquals(probability, 0.7973656137737204, EPSILON);
+		
+		// Here is the probability of a consecutive pair, without any other card's support.
+		deck = new CardTracker(trumpSuit, trumpNumber, 3);
+		int[] num_cards = {2,2};
+		my_hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_DIAMOND, Card.NUMBER_THREE);
+		deck.DeleteCards(my_hand);
+		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			probability = deck.CurrentPropertyProbability(p, 5, false);
+			switch (p.leading_number) {
+			case Card.NUMBER_THREE:
+				assertEquals(probability, 0.521729561129189, EPSILON);
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		
+		//  Now compare triples with 2-2-2's, for a 4 player game.
+		int[] num_cards_2 = {3, 0, 0, 0, 0, 0, 2, 2, 2};
+		my_hand = CardPropertyTest.CreateCards(num_cards_2, trumpSuit, Card.NUMBER_GUARANTEE);
+		deck.DeleteCards(my_hand);
+		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			probability = deck.CurrentPropertyProbability(p, 3, false);
+			switch (p.leading_number) {
+			case SingletonCardProperty.SMALL_JOKER:
+				assertEquals(probability, 0.8888888888888888, EPSILON);
+				break;
+			case Card.NUMBER_NINE:
+				assertEquals(probability, 0.41035899217694916, EPSILON);
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		// Now compare in the non-trump suit.  So with the help of lots of MINOR_TRUMP_NUMBER, consecutive
+		// one have much lower probability in trumps.
+		int[] num_cards_3 = {3, 0, 0, 0, 0, 0, 2, 2, 2};
+		my_hand = CardPropertyTest.CreateCards(num_cards_3, Card.SUIT_SPADE, Card.NUMBER_KING);
+		deck.DeleteCards(my_hand);
+		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			probability = deck.CurrentPropertyProbability(p, 3, false);
+			switch (p.leading_number) {
+			case Card.NUMBER_KING:
+				assertEquals(probability, 0.8888888888888888, EPSILON);
+				break;
+			case Card.NUMBER_SEVEN:
+				assertEquals(probability, 0.8003703444039424, EPSILON);
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+		
+		deck = new CardTracker(trumpSuit, trumpNumber, 3);
+		int[] num_cards_4 = {1, 2};
+		my_hand = CardPropertyTest.CreateCards(num_cards_4, Card.SUIT_HEART, Card.NUMBER_NO_GUARANTEE);
+		deck.DeleteCards(my_hand);
+		property = new CardProperty(my_hand, trumpSuit, trumpNumber);
+		for (SingletonCardProperty p: property.properties) {
+			probability = deck.CurrentPropertyProbability(p, 3, false);
+			switch (p.leading_number) {
+			case SingletonCardProperty.BIG_JOKER:
+				assertTrue(probability == 1.0);
+				break;
+			case SingletonCardProperty.SMALL_JOKER:
+				assertEquals(probability, 0.6666666666666666, EPSILON);
+				break;
+			default:
+				assertFalse(true);
+			}
+		}
+	}
+
+	public void testRemainingCards() {
+		int trumpSuit = Card.SUIT_HEART;
+		int trumpNumber = Card.NUMBER_TEN;
+		CardTracker deck = new CardTracker(trumpSuit, trumpNumber, 2);
+		// 12 numbers in each non-trump suit, 12 + 2 jokers + 4 tens in trump.
+		assertTrue(deck.RemainingCardsInSuit(Card.SUIT_SPADE) == 24);
+		assertTrue(deck.RemainingCardsInSuit(trumpSuit) == 36);
+		assertTrue(deck.RemainingCardsInSuit(Card.SUIT_NO_TRUMP) == 0);
+		assertTrue(deck.HighestRemainingNumber(Card.SUIT_SPADE) == SingletonCardProperty.ACE);
+		assertTrue(deck.HighestRemainingNumber(trumpSuit) == SingletonCardProperty.BIG_JOKER);
+		assertTrue(deck.LowestRemainingNumber(Card.SUIT_SPADE) == SingletonCardProperty.TWO);
+		assertTrue(deck.HighestRemainingNumber(Card.SUIT_NO_TRUMP) == SingletonCardProperty.UNDEFINED);
+		// Spade 5s and Ks, the tens are trump.
+		assertTrue(deck.TotalPointsRemainingInSuit(Card.SUIT_SPADE, SingletonCardProperty.TWO) == 30);
+		assertTrue(deck.TotalPointsRemainingInSuit(Card.SUIT_SPADE, SingletonCardProperty.QUEEN) == 20);
+		// Heart 5s and Ks, and all 8 tens.
+		assertTrue(deck.TotalPointsRemainingInSuit(trumpSuit, SingletonCardProperty.TWO) == 110);
+		assertTrue(deck.TotalPointsRemainingInSuit(trumpSuit, SingletonCardProperty.MINOR_TRUMP_NUMBER) == 20);
+
+		int[] num_cards = {2, 2};
+		deck.DeleteCards(CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_ACE));
+		assertTrue(deck.RemainingCardsInSuit(Card.SUIT_SPADE) == 20);
+		assertTrue(deck.HighestRemainingNumber(Card.SUIT_SPADE) == SingletonCardProperty.QUEEN);
+		assertTrue(deck.RemainingCardsAboveNumber(Card.SUIT_SPADE, SingletonCardProperty.NINE) == 4);
+		assertTrue(deck.TotalPointsRemainingInSuit(Card.SUIT_SPADE, SingletonCardProperty.TWO) == 10);
+		int[] twos = {2};
+		deck.DeleteCards(CardPropertyTest.CreateCards(twos, Card.SUIT_SPADE, Card.NUMBER_TWO));
+		assertTrue(deck.LowestRemainingNumber(Card.SUIT_SPADE) == SingletonCardProperty.THREE);
+	}
+
+	public void testProbabilityMemo() {
+		int trumpSuit = Card.SUIT_HEART;
+		int trumpNumber = Card.NUMBER_TEN;
+		CardTracker deck = new CardTracker(trumpSuit, trumpNumber, 2);
+		int[] num_cards = {2};
+		Card[] my_hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
+		SingletonCardProperty p = new CardProperty(my_hand, trumpSuit, trumpNumber).properties.get(0);
+		double probability = deck.CurrentPropertyProbability(p, 3, false);
+		assertTrue(deck.GetProbabilityMemoMisses() == 1);
+		assertEquals(probability, deck.CurrentPropertyProbability(p, 3, false), EPSILON);
+		assertTrue(deck.GetProbabilityMemoHits() == 1);
+		// Different players or targeting is a different question.
+		deck.CurrentPropertyProbability(p, 3, true);
+		deck.CurrentPropertyProbability(p, 2, false);
+		assertTrue(deck.GetProbabilityMemoMisses() == 3);
+		// Once the bigger cards are gone, the old answer is no good.
+		int[] aces = {2, 2};
+		deck.DeleteCards(CardPropertyTest.CreateCards(aces, Card.SUIT_SPADE, Card.NUMBER_ACE));
+		double new_probability = deck.CurrentPropertyProbability(p, 3, false);
+		assertTrue(deck.GetProbabilityMemoMisses() == 4);
+		assertTrue(new_probability > probability);
+		assertEquals(deck.GetProbabilityMemoHitRate(), 0.2, EPSILON);
+	}
+
+	public void testPropertyProbabilityWithBelief() {
+		int trumpSuit = Card.SUIT_HEART;
+		int trumpNumber = Card.NUMBER_TEN;
+		CardTracker deck = new CardTracker(trumpSuit, trumpNumber, 2);
+		CardBelief belief = new CardBelief(4, 1, 2, DealOrdering.Get(trumpSuit, trumpNumber));
+		int[] num_cards = {2};
+		Card[] my_hand = CardPropertyTest.CreateCards(num_cards, Card.SUIT_SPADE, Card.NUMBER_QUEEN);
+		deck.DeleteCards(my_hand);
+		belief.RemoveKnownCards(my_hand);
+		SingletonCardProperty p = new CardProperty(my_hand, trumpSuit, trumpNumber).properties.get(0);
+		// Nothing known yet, so it's the same as the even spread among the other 3.
+		assertEquals(deck.CurrentPropertyProbability(p, belief, CardBelief.ANY_PLAYER),
+				deck.CurrentPropertyProbability(p, 3, false), EPSILON);
+		assertEquals(deck.CurrentPropertyProbability(p, belief, 0),
+				deck.CurrentPropertyProbability(p, 3, true), EPSILON);
+		// Only among players 0 and 2.
+		assertEquals(deck.CurrentPropertyProbability(p, belief, 0, (1 << 0) | (1 << 2)),
+				deck.CurrentPropertyProbability(p, 2, true), EPSILON);
+		// Player 0 is out of spades: can't beat us, and the rest is between 2 players.
+		belief.SetVoid(0, Card.SUIT_SPADE);
+		assertEquals(deck.CurrentPropertyProbability(p, belief, 0), 1, EPSILON);
+		assertEquals(deck.CurrentPropertyProbability(p, belief, CardBelief.ANY_PLAYER),
+				deck.CurrentPropertyProbability(p, 2, false), EPSILON);
+	}
+
+	public void testCombinatorics() {
+		assertEquals(SingletonCardPropertyProbability.NChooseM(6, 3), 20, EPSILON);
+		assertEquals(SingletonCardPropertyProbability.NChooseM(5, 0), 1, EPSILON);
+		assertEquals(SingletonCardPropertyProbability.NChooseM(2, 3), 0, EPSILON);
+		// Beyond an int, and beyond the Pascal table.
+		assertEquals(SingletonCardPropertyProbability.NChooseM(40, 20), 137846528820.0, 1);
+		assertEquals(SingletonCardPropertyProbability.NChooseM(108, 2), 5778, EPSILON);
+		// Triples among 6 decks worth of a card, 3 players.
+		Vector<Integer> num_cards = new Vector<Integer>();
+		num_cards.add(6);
+		double P = 3 * 3;
+		double expected = 1 - Math.pow((P - 1) / P, 20);
+		assertEquals(SingletonCardPropertyProbability.ProbabilityApproximate(3, num_cards, false, 3, 1),
+				expected, EPSILON);
+	}
+
+	public void testProbabilityTable() throws IOException {
+		SingletonCardPropertyProbability.Precompute(3);
+		assertTrue(SingletonCardPropertyProbability.IsTableReady());
+		SingletonCardProperty pair = SingletonCardProperty.CreatePropertyOfType(2, 1);
+		double probability = pair.Probability(3, 2);
+		Vector<Integer> num_cards = new Vector<Integer>();
+		num_cards.add(2);
+		assertEquals(probability,
+				SingletonCardPropertyProbability.ProbabilityApproximate(3, num_cards, false, 2, 1), EPSILON);
+		// Round trip through the resource format.
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SingletonCardPropertyProbability.Save(out);
+		byte[] bytes = out.toByteArray();
+		SingletonCardPropertyProbability.Load(new ByteArrayInputStream(bytes));
+		assertEquals(probability, pair.Probability(3, 2), EPSILON);
+		// A truncated table is rejected.
+		try {
+			SingletonCardPropertyProbability.Load(new ByteArrayInputStream(bytes, 0, bytes.length / 2));
+			assertFalse(true);
+		} catch (IOException e) {
+		}
+		assertEquals(probability, pair.Probability(3, 2), EPSILON);
+	}
+
+	public void testSuitDistribution() {
+		SuitDistribution distribution = SuitDistribution.Get(2, 4);
+		// 3 players who may hold the suit, 5 cards left.
+		assertEquals(distribution.AtLeast(5, 3, 1), 1 - Math.pow(2.0 / 3, 5), EPSILON);
+		double at_most_one = Math.pow(2.0 / 3, 5) + 5 * Math.pow(2.0 / 3, 4) / 3;
+		assertEquals(distribution.AtLeast(5, 3, 2), 1 - at_most_one, EPSILON);
+		assertEquals(distribution.AtLeast(5, 3, 0), 1, EPSILON);
+		assertEquals(distribution.AtLeast(5, 3, 6), 0, EPSILON);
+		// A single player holding the suit has all of it.
+		assertEquals(distribution.AtLeast(5, 1, 5), 1, EPSILON);
+		assertEquals(distribution.AtLeast(0, 3, 1), 0, EPSILON);
+		assertTrue(distribution == SuitDistribution.Get(2, 4));
+	}
+}